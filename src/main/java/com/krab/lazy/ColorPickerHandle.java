@@ -0,0 +1,63 @@
+package com.krab.lazy;
+
+import com.krab.lazy.nodes.ColorPickerFolderNode;
+import com.krab.lazy.stores.GlobalReferences;
+
+/**
+ * Typed handle bound to a color picker control element, obtained from LazyGui.colorPickerHandle().
+ * Meant to be kept in a variable after setup() and read in hot loops inside draw() without any path lookup.
+ * Use hex() for an allocation free read, get() creates a new PickerColor with the HSBA values on every call.
+ * When the path was already taken by a different type of control element the handle is unbound and always returns its default value.
+ * @see LazyGui#colorPickerHandle(String, int)
+ */
+public class ColorPickerHandle {
+    private final ColorPickerFolderNode node;
+    private final int defaultHex;
+
+    ColorPickerHandle(ColorPickerFolderNode node, int defaultHex) {
+        this.node = node;
+        this.defaultHex = defaultHex;
+    }
+
+    /**
+     * Gets the current color as a processing integer color without any allocation or lookup.
+     * @return processing int color usable in fill() and stroke() in any colorMode
+     */
+    public int hex() {
+        if (node == null) {
+            return defaultHex;
+        }
+        node.lastQueriedFrame = GlobalReferences.app.frameCount;
+        return node.getFrameHex();
+    }
+
+    /**
+     * Gets the current color along with its normalized HSBA values.
+     * @return new PickerColor object with the current values
+     */
+    public PickerColor get() {
+        if (node == null) {
+            return new PickerColor(defaultHex);
+        }
+        node.lastQueriedFrame = GlobalReferences.app.frameCount;
+        return node.getFrameColor();
+    }
+
+    /**
+     * Sets the color without requiring user interaction.
+     * @param hex processing int color to set
+     */
+    public void set(int hex) {
+        if (node != null) {
+            node.setHex(hex);
+            node.loadValuesFromHex(false);
+        }
+    }
+
+    /**
+     * @return false when the path was taken by a different type of control element and this handle only returns the default
+     */
+    public boolean isBound() {
+        return node != null;
+    }
+}
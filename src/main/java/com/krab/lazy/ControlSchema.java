@@ -0,0 +1,191 @@
+package com.krab.lazy;
+
+import com.krab.lazy.nodes.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Declarative list of control elements to create all at once with LazyGui.registerControls().
+ * Meant for sketches that create hundreds or thousands of controls in setup() and want to avoid paying the full
+ * lazy initialization cost of one LazyGui.slider() call at a time.
+ * Meant to be used like this in setup():
+ * <pre>
+ *      gui.registerControls(new ControlSchema()
+ *          .slider("particles/speed", 1.5f, 0, 10)
+ *          .sliderInt("particles/count", 1000, 1, 10000)
+ *          .toggle("particles/trails", true)
+ *          // ...
+ *      );
+ * </pre>
+ * The paths are relative to the current folder just like in the other LazyGui control methods.
+ * Paths that already hold some control are skipped, so registering the same schema again does nothing.
+ * A path held by a different type of control gets skipped with the same path conflict warning as in the individual control methods.
+ * Controls that were evicted from their path get revived with their values instead of being created again.
+ * The values are then read as usual with LazyGui.slider() and the other control methods or through typed handles.
+ */
+@SuppressWarnings("unused")
+public class ControlSchema {
+    final List<Entry> entries = new ArrayList<>();
+    private int lastCreatedControlCount = 0;
+    private float lastRegistrationMillis = 0;
+
+    static class Entry {
+        final String path;
+        final Class<? extends AbstractNode> nodeType;
+        final BiFunction<String, FolderNode, AbstractNode> createNode;
+
+        Entry(String path, Class<? extends AbstractNode> nodeType, BiFunction<String, FolderNode, AbstractNode> createNode) {
+            this.path = path;
+            this.nodeType = nodeType;
+            this.createNode = createNode;
+        }
+    }
+
+    /**
+     * Adds a float slider with no constraint on min and max value.
+     *
+     * @param path         forward slash separated unique path to the control element
+     * @param defaultValue default value to use when no value was loaded from a save
+     * @return this schema for chaining statements easily
+     */
+    public ControlSchema slider(String path, float defaultValue) {
+        return slider(path, defaultValue, -Float.MAX_VALUE, Float.MAX_VALUE, false);
+    }
+
+    /**
+     * Adds a float slider constrained between min and max.
+     *
+     * @param path         forward slash separated unique path to the control element
+     * @param defaultValue default value to use when no value was loaded from a save
+     * @param min          minimum value
+     * @param max          maximum value
+     * @return this schema for chaining statements easily
+     */
+    public ControlSchema slider(String path, float defaultValue, float min, float max) {
+        return slider(path, defaultValue, min, max, true);
+    }
+
+    private ControlSchema slider(String path, float defaultValue, float min, float max, boolean constrained) {
+        entries.add(new Entry(path, SliderNode.class, (fullPath, folder) -> new SliderNode(fullPath, folder, defaultValue, min, max, constrained)));
+        return this;
+    }
+
+    /**
+     * Adds an integer slider with no constraint on min and max value.
+     *
+     * @param path         forward slash separated unique path to the control element
+     * @param defaultValue default value to use when no value was loaded from a save
+     * @return this schema for chaining statements easily
+     */
+    public ControlSchema sliderInt(String path, int defaultValue) {
+        return sliderInt(path, defaultValue, -Integer.MAX_VALUE, Integer.MAX_VALUE, false);
+    }
+
+    /**
+     * Adds an integer slider constrained between min and max.
+     *
+     * @param path         forward slash separated unique path to the control element
+     * @param defaultValue default value to use when no value was loaded from a save
+     * @param min          minimum value
+     * @param max          maximum value
+     * @return this schema for chaining statements easily
+     */
+    public ControlSchema sliderInt(String path, int defaultValue, int min, int max) {
+        return sliderInt(path, defaultValue, min, max, true);
+    }
+
+    private ControlSchema sliderInt(String path, int defaultValue, int min, int max, boolean constrained) {
+        entries.add(new Entry(path, SliderIntNode.class, (fullPath, folder) -> new SliderIntNode(fullPath, folder, defaultValue, min, max, constrained)));
+        return this;
+    }
+
+    /**
+     * Adds a toggle.
+     *
+     * @param path         forward slash separated unique path to the control element
+     * @param defaultValue default state to use when no state was loaded from a save
+     * @return this schema for chaining statements easily
+     */
+    public ControlSchema toggle(String path, boolean defaultValue) {
+        entries.add(new Entry(path, ToggleNode.class, (fullPath, folder) -> new ToggleNode(fullPath, folder, defaultValue)));
+        return this;
+    }
+
+    /**
+     * Adds a button.
+     *
+     * @param path forward slash separated unique path to the control element
+     * @return this schema for chaining statements easily
+     */
+    public ControlSchema button(String path) {
+        entries.add(new Entry(path, ButtonNode.class, ButtonNode::new));
+        return this;
+    }
+
+    /**
+     * Adds a text input.
+     *
+     * @param path    forward slash separated unique path to the control element
+     * @param content default content to use when no content was loaded from a save
+     * @return this schema for chaining statements easily
+     */
+    public ControlSchema text(String path, String content) {
+        entries.add(new Entry(path, TextNode.class, (fullPath, folder) -> new TextNode(fullPath, folder, content)));
+        return this;
+    }
+
+    /**
+     * Adds a color picker.
+     *
+     * @param path       forward slash separated unique path to the control element
+     * @param defaultHex default color to use when no color was loaded from a save
+     * @return this schema for chaining statements easily
+     */
+    public ControlSchema colorPicker(String path, int defaultHex) {
+        entries.add(new Entry(path, ColorPickerFolderNode.class, (fullPath, folder) -> new ColorPickerFolderNode(fullPath, folder, defaultHex)));
+        return this;
+    }
+
+    /**
+     * Adds a radio selection.
+     *
+     * @param path          forward slash separated unique path to the control element
+     * @param options       list of options to display
+     * @param defaultOption default option to select when no option was loaded from a save
+     * @return this schema for chaining statements easily
+     * @throws IllegalArgumentException when the options are null or empty
+     */
+    public ControlSchema radio(String path, String[] options, String defaultOption) {
+        if (options == null || options.length == 0) {
+            throw new IllegalArgumentException("options parameter must not be null nor empty");
+        }
+        entries.add(new Entry(path, RadioFolderNode.class, (fullPath, folder) -> new RadioFolderNode(fullPath, folder, options, defaultOption)));
+        return this;
+    }
+
+    /**
+     * Gets the number of control elements created by the last registration of this schema,
+     * which excludes the paths that already held some control.
+     *
+     * @return number of created control elements
+     */
+    public int getLastCreatedControlCount() {
+        return lastCreatedControlCount;
+    }
+
+    /**
+     * Gets how long the last registration of this schema took, measured from start to finish inside LazyGui.registerControls().
+     *
+     * @return duration of the last registration in milliseconds
+     */
+    public float getLastRegistrationMillis() {
+        return lastRegistrationMillis;
+    }
+
+    void setLastRegistrationResult(int createdControlCount, float registrationMillis) {
+        this.lastCreatedControlCount = createdControlCount;
+        this.lastRegistrationMillis = registrationMillis;
+    }
+}
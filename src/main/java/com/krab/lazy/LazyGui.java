@@ -6,8 +6,10 @@ import com.krab.lazy.input.UserInputPublisher;
 import com.krab.lazy.nodes.*;
 import com.krab.lazy.stores.*;
 import com.krab.lazy.themes.ThemeStore;
+import com.krab.lazy.utils.CanvasRegions;
 import com.krab.lazy.utils.ContextLines;
 import com.krab.lazy.utils.MouseHiding;
+import com.krab.lazy.utils.NodePaths;
 import com.krab.lazy.utils.SnapToGrid;
 import com.krab.lazy.windows.Window;
 import com.krab.lazy.windows.WindowManager;
@@ -17,8 +19,7 @@ import processing.core.PGraphics;
 import processing.core.PVector;
 
 import java.io.File;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 import static com.krab.lazy.stores.GlobalReferences.app;
 import static com.krab.lazy.stores.GlobalReferences.gui;
@@ -41,11 +42,16 @@ public class LazyGui  {
 
     private static int lastFrameCountGuiWasShown = -1;
 
-    List<String> pathPrefix = new ArrayList<>();
+    private final Thread mainThread = Thread.currentThread();
+    private final PathPrefixStack mainThreadPathPrefix = new PathPrefixStack();
+    private final ThreadLocal<PathPrefixStack> otherThreadPathPrefixes = ThreadLocal.withInitial(PathPrefixStack::new);
     int stackSizeWarningLevel = 64;
     private boolean printedPushWarningAlready = false;
     private boolean printedPopWarningAlready = false;
     private PGraphics guiCanvas;
+    private boolean isGuiCanvasOutdated = true;
+    private boolean wasGuiHiddenWhenCanvasWasDrawn = false;
+    private int guiCanvasHashWhenDrawn;
 
     private static LazyGui singleton;
 
@@ -111,10 +117,12 @@ public class LazyGui  {
 
     void lazyFollowSketchResolution() {
         if (guiCanvas == null || guiCanvas.width != app.width || guiCanvas.height != app.height) {
-            guiCanvas = app.createGraphics(app.width, app.height, P2D);
+            SurfaceStore.release(guiCanvas);
+            guiCanvas = SurfaceStore.obtain(app.width, app.height, P2D, 8);
             guiCanvas.colorMode(HSB, 1, 1, 1, 1);
-//            pg.noSmooth();
-            guiCanvas.smooth(8);
+            // a new sketch size can come with a new GL context where the shaders lost their uniform values
+            ShaderStore.invalidateUniforms();
+            isGuiCanvasOutdated = true;
         }
     }
 
@@ -162,26 +170,67 @@ public class LazyGui  {
             root.window.windowSizeX = root.autosuggestWindowWidthForContents();
         }
         lazyFollowSketchResolution();
-        updateAllNodeValuesRegardlessOfParentWindowOpenness();
-        guiCanvas.beginDraw();
-        guiCanvas.clear();
+        SurfaceStore.disposeStaleFreeSurfaces();
+        EvictionStore.evictStaleNodesIfNeeded();
+        UpdateScheduler.updateSubscribedNodes();
         gui.clearFolder();
         updateOptionsFolder();
-        if (!LayoutStore.isGuiHidden()) {
-            SnapToGrid.displayGuideAndApplyFilter(guiCanvas, getWindowBeingDraggedIfAny());
-            ContextLines.drawLines(guiCanvas);
-            WindowManager.updateAndDrawWindows(guiCanvas);
+        boolean isGuiHidden = LayoutStore.isGuiHidden();
+        if (isGuiCanvasOutdated || isGuiHidden != wasGuiHiddenWhenCanvasWasDrawn || RefreshRateStore.isRefreshDue()) {
+            refreshGuiCanvas(isGuiHidden);
         }
-        guiCanvas.endDraw();
         resetSketchMatrixInAnyRenderer();
         targetCanvas.hint(DISABLE_DEPTH_TEST);
-        targetCanvas.pushStyle();
-        targetCanvas.imageMode(CORNER);
-        targetCanvas.image(guiCanvas, 0, 0);
-        targetCanvas.popStyle();
+        if (!isGuiHidden) {
+            targetCanvas.pushStyle();
+            targetCanvas.imageMode(CORNER);
+            CanvasRegions.drawRegions(guiCanvas, targetCanvas);
+            targetCanvas.popStyle();
+        }
         targetCanvas.hint(ENABLE_DEPTH_TEST);
         takeScreenshotIfRequested();
         JsonSaveStore.updateEndlessLoopDetection();
+        FrameValueStore.publishFrameValues();
+    }
+
+    /**
+     * Updates the windows and redraws the gui canvas when anything on it changed, which happens at the gui refresh rate.
+     * The frames in between display the previous gui canvas again.
+     * @see RefreshRateStore
+     */
+    private void refreshGuiCanvas(boolean isGuiHidden) {
+        Window draggedWindow = null;
+        int guiCanvasHash = 0;
+        if (!isGuiHidden) {
+            draggedWindow = getWindowBeingDraggedIfAny();
+            SnapToGrid.updateGuide(draggedWindow);
+            guiCanvasHash = WindowManager.updateWindows(guiCanvas);
+            guiCanvasHash = 31 * guiCanvasHash + ContextLines.getDisplayHash();
+            guiCanvasHash = 31 * guiCanvasHash + SnapToGrid.getDisplayHash(draggedWindow);
+        }
+        if (isGuiCanvasOutdated || isGuiHidden != wasGuiHiddenWhenCanvasWasDrawn || guiCanvasHash != guiCanvasHashWhenDrawn) {
+            redrawGuiCanvas(isGuiHidden, draggedWindow);
+            isGuiCanvasOutdated = false;
+            wasGuiHiddenWhenCanvasWasDrawn = isGuiHidden;
+            guiCanvasHashWhenDrawn = guiCanvasHash;
+        }
+    }
+
+    /**
+     * Draws the gui canvas from scratch, which only happens in frames where something on it changed.
+     * Keeps track of the regions that got drawn on, so that only those get blended onto the sketch.
+     */
+    private void redrawGuiCanvas(boolean isGuiHidden, Window draggedWindow) {
+        CanvasRegions.clear();
+        guiCanvas.beginDraw();
+        guiCanvas.clear();
+        if (!isGuiHidden) {
+            SnapToGrid.displayGuideAndApplyFilter(guiCanvas, draggedWindow);
+            ContextLines.drawLines(guiCanvas);
+            WindowManager.drawWindows(guiCanvas);
+        }
+        guiCanvas.endDraw();
+        CanvasRegions.finish(guiCanvas.width, guiCanvas.height);
     }
 
     static void resetSketchMatrixInAnyRenderer() {
@@ -205,13 +254,9 @@ public class LazyGui  {
     }
 
     private Window getWindowBeingDraggedIfAny() {
-        List<AbstractNode> allNodes = getAllNodesAsList();
-        for(AbstractNode node : allNodes){
-            if(node.type == NodeType.FOLDER){
-                FolderNode folder = (FolderNode) node;
-                if(folder.window != null && folder.window.isBeingDraggedAround){
-                    return folder.window;
-                }
+        for(FolderNode folder : getAllFolders()){
+            if(folder.window != null && folder.window.isBeingDraggedAround){
+                return folder.window;
             }
         }
         return null;
@@ -267,16 +312,17 @@ public class LazyGui  {
     }
 
     private float slider(String path, float defaultValue, float min, float max, boolean constrained) {
-        String fullPath = getFolder() + path;
-        if(isPathTakenByUnexpectedType(fullPath, SliderNode.class)){
+        AbstractNode existingNode = findNodeInCurrentFolder(path);
+        if(isNodeOfUnexpectedType(existingNode, SliderNode.class)){
             return defaultValue;
         }
-        SliderNode node = (SliderNode) findNode(fullPath);
+        SliderNode node = (SliderNode) existingNode;
         if (node == null) {
+            String fullPath = getFolder() + path;
             node = createSliderNode(fullPath, defaultValue, min, max, constrained);
-            insertNodeAtItsPath(node);
+            node = insertNodeOrFindWinner(node, SliderNode.class);
         }
-        return node.valueFloat;
+        return node.getFrameValueFloat();
     }
 
     private SliderNode createSliderNode(String path, float defaultValue, float min, float max, boolean constrained) {
@@ -286,6 +332,62 @@ public class LazyGui  {
         return node;
     }
 
+    /**
+     * Gets a typed handle bound to a float slider control element.
+     * Lazily initializes the slider if needed with a default value of 0 and no constraint on min and max value.
+     * Keep the handle in a variable and read it with SliderHandle.get() when the same slider is read many times per frame,
+     * because the handle skips the path building and node lookup that every slider() call does.
+     *
+     * @param path forward slash separated unique path to the control element
+     * @return handle bound to the slider at the path
+     * @see SliderHandle
+     */
+    public SliderHandle sliderHandle(String path) {
+        return sliderHandle(path, 0, -Float.MAX_VALUE, Float.MAX_VALUE, false);
+    }
+
+    /**
+     * Gets a typed handle bound to a float slider control element.
+     * Lazily initializes the slider if needed with the specified default value and no constraint on min and max value.
+     *
+     * @param path forward slash separated unique path to the control element
+     * @param defaultValue default value to set the slider to
+     * @return handle bound to the slider at the path
+     * @see SliderHandle
+     */
+    public SliderHandle sliderHandle(String path, float defaultValue) {
+        return sliderHandle(path, defaultValue, -Float.MAX_VALUE, Float.MAX_VALUE, false);
+    }
+
+    /**
+     * Gets a typed handle bound to a float slider control element.
+     * Lazily initializes the slider if needed with the specified default value along with enforcing a minimum and maximum of reachable values.
+     *
+     * @param path forward slash separated unique path to the control element
+     * @param defaultValue the default value, ideally between min and max
+     * @param min the value cannot go below this, min &lt; max must be true
+     * @param max the value cannot go above this, max &gt; min must be true
+     * @return handle bound to the slider at the path
+     * @see SliderHandle
+     */
+    public SliderHandle sliderHandle(String path, float defaultValue, float min, float max) {
+        return sliderHandle(path, defaultValue, min, max, true);
+    }
+
+    private SliderHandle sliderHandle(String path, float defaultValue, float min, float max, boolean constrained) {
+        AbstractNode existingNode = findNodeInCurrentFolder(path);
+        if(isNodeOfUnexpectedType(existingNode, SliderNode.class)){
+            return new SliderHandle(null, defaultValue);
+        }
+        SliderNode node = (SliderNode) existingNode;
+        if (node == null) {
+            String fullPath = getFolder() + path;
+            node = createSliderNode(fullPath, defaultValue, min, max, constrained);
+            node = insertNodeOrFindWinner(node, SliderNode.class);
+        }
+        return new SliderHandle(node, defaultValue);
+    }
+
     /**
      * Sets the value of a float slider control element manually at runtime without requiring user interaction.
      * Does not block changing the value in the future in any way.
@@ -295,14 +397,15 @@ public class LazyGui  {
      * @param value value to set the float slider at the path to
      */
     public void sliderSet(String path, float value){
-        String fullPath = getFolder() + path;
-        if(isPathTakenByUnexpectedType(fullPath, SliderNode.class)){
+        AbstractNode existingNode = findNodeInCurrentFolder(path);
+        if(isNodeOfUnexpectedType(existingNode, SliderNode.class)){
             return;
         }
-        SliderNode node = (SliderNode) findNode(fullPath);
+        SliderNode node = (SliderNode) existingNode;
         if (node == null) {
+            String fullPath = getFolder() + path;
             node = createSliderNode(fullPath, value, -Float.MAX_VALUE, Float.MAX_VALUE, false);
-            insertNodeAtItsPath(node);
+            node = insertNodeOrFindWinner(node, SliderNode.class);
         }
         node.valueFloat = value;
     }
@@ -316,14 +419,15 @@ public class LazyGui  {
      * @param amountToAdd value to set the float slider at the path to
      */
     public void sliderAdd(String path, float amountToAdd){
-        String fullPath = getFolder() + path;
-        if(isPathTakenByUnexpectedType(fullPath, SliderNode.class)){
+        AbstractNode existingNode = findNodeInCurrentFolder(path);
+        if(isNodeOfUnexpectedType(existingNode, SliderNode.class)){
             return;
         }
-        SliderNode node = (SliderNode) findNode(fullPath);
+        SliderNode node = (SliderNode) existingNode;
         if (node == null) {
+            String fullPath = getFolder() + path;
             node = createSliderNode(fullPath, 0, -Float.MAX_VALUE, Float.MAX_VALUE, false);
-            insertNodeAtItsPath(node);
+            node = insertNodeOrFindWinner(node, SliderNode.class);
         }
         node.valueFloat += amountToAdd;
     }
@@ -367,16 +471,17 @@ public class LazyGui  {
     }
 
     private int sliderInt(String path, int defaultValue, int min, int max, boolean constrained) {
-        String fullPath = getFolder() + path;
-        if(isPathTakenByUnexpectedType(fullPath, SliderNode.class)){
+        AbstractNode existingNode = findNodeInCurrentFolder(path);
+        if(isNodeOfUnexpectedType(existingNode, SliderNode.class)){
             return defaultValue;
         }
-        SliderIntNode node = (SliderIntNode) findNode(fullPath);
+        SliderIntNode node = (SliderIntNode) existingNode;
         if (node == null) {
+            String fullPath = getFolder() + path;
             node = createSliderIntNode(fullPath, defaultValue, min, max, constrained);
-            insertNodeAtItsPath(node);
+            node = insertNodeOrFindWinner(node, SliderIntNode.class);
         }
-        return node.getIntValue();
+        return node.getFrameIntValue();
     }
 
     private SliderIntNode createSliderIntNode(String path, int defaultValue, int min, int max, boolean constrained) {
@@ -386,6 +491,48 @@ public class LazyGui  {
         return node;
     }
 
+    /**
+     * Gets a typed handle bound to an integer slider control element.
+     * Lazily initializes the slider if needed with the specified default value and no constraint on min and max value.
+     *
+     * @param path forward slash separated unique path to the control element
+     * @param defaultValue default value to set the slider to
+     * @return handle bound to the slider at the path
+     * @see SliderIntHandle
+     */
+    public SliderIntHandle sliderIntHandle(String path, int defaultValue) {
+        return sliderIntHandle(path, defaultValue, -Integer.MAX_VALUE, Integer.MAX_VALUE, false);
+    }
+
+    /**
+     * Gets a typed handle bound to an integer slider control element.
+     * Lazily initializes the slider if needed with the specified default value along with enforcing a minimum and maximum of reachable values.
+     *
+     * @param path forward slash separated unique path to the control element
+     * @param defaultValue the default value, ideally between min and max
+     * @param min the value cannot go below this, min &lt; max must be true
+     * @param max the value cannot go above this, max &gt; min must be true
+     * @return handle bound to the slider at the path
+     * @see SliderIntHandle
+     */
+    public SliderIntHandle sliderIntHandle(String path, int defaultValue, int min, int max) {
+        return sliderIntHandle(path, defaultValue, min, max, true);
+    }
+
+    private SliderIntHandle sliderIntHandle(String path, int defaultValue, int min, int max, boolean constrained) {
+        AbstractNode existingNode = findNodeInCurrentFolder(path);
+        if(isNodeOfUnexpectedType(existingNode, SliderIntNode.class)){
+            return new SliderIntHandle(null, defaultValue);
+        }
+        SliderIntNode node = (SliderIntNode) existingNode;
+        if (node == null) {
+            String fullPath = getFolder() + path;
+            node = createSliderIntNode(fullPath, defaultValue, min, max, constrained);
+            node = insertNodeOrFindWinner(node, SliderIntNode.class);
+        }
+        return new SliderIntHandle(node, defaultValue);
+    }
+
     /**
      * Sets the value of an integer slider control element manually at runtime without requiring user interaction.
      * Initializes a new float slider at the given path if needed.
@@ -396,14 +543,15 @@ public class LazyGui  {
      * @param value value to set the float slider at the path to
      */
     public void sliderIntSet(String path, int value){
-        String fullPath = getFolder() + path;
-        if(isPathTakenByUnexpectedType(fullPath, SliderNode.class)){
+        AbstractNode existingNode = findNodeInCurrentFolder(path);
+        if(isNodeOfUnexpectedType(existingNode, SliderNode.class)){
             return;
         }
-        SliderIntNode node = (SliderIntNode) findNode(fullPath);
+        SliderIntNode node = (SliderIntNode) existingNode;
         if (node == null) {
+            String fullPath = getFolder() + path;
             node = createSliderIntNode(fullPath, value, -Integer.MAX_VALUE, Integer.MAX_VALUE, false);
-            insertNodeAtItsPath(node);
+            node = insertNodeOrFindWinner(node, SliderIntNode.class);
         }
         node.valueFloat = value;
     }
@@ -503,16 +651,17 @@ public class LazyGui  {
     }
 
     private PVector plotXYZ(String path, PVector defaultXYZ, boolean useZ){
-        String fullPath = getFolder() + path;
-        if(isPathTakenByUnexpectedType(fullPath, PlotFolderNode.class)){
+        AbstractNode existingNode = findNodeInCurrentFolder(path);
+        if(isNodeOfUnexpectedType(existingNode, PlotFolderNode.class)){
             return defaultXYZ == null ? new PVector() : defaultXYZ.copy();
         }
-        PlotFolderNode node = (PlotFolderNode) findNode(fullPath);
+        PlotFolderNode node = (PlotFolderNode) existingNode;
         if(node == null){
+            String fullPath = getFolder() + path;
             node = createPlotNode(fullPath, defaultXYZ, useZ);
-            insertNodeAtItsPath(node);
+            node = insertNodeOrFindWinner(node, PlotFolderNode.class);
         }
-        return node.getVectorValue();
+        return node.getFrameVectorValue();
     }
 
     /**
@@ -560,18 +709,62 @@ public class LazyGui  {
     }
 
     private void plotSet(String path, PVector valueToSet, boolean useZ){
-        String fullPath = getFolder() + path;
-        if(isPathTakenByUnexpectedType(fullPath, PlotFolderNode.class)){
+        AbstractNode existingNode = findNodeInCurrentFolder(path);
+        if(isNodeOfUnexpectedType(existingNode, PlotFolderNode.class)){
             return;
         }
-        PlotFolderNode node = (PlotFolderNode) findNode(fullPath);
+        PlotFolderNode node = (PlotFolderNode) existingNode;
         if(node == null){
+            String fullPath = getFolder() + path;
             node = createPlotNode(fullPath, valueToSet, useZ);
-            insertNodeAtItsPath(node);
+            node = insertNodeOrFindWinner(node, PlotFolderNode.class);
         }
         node.setVectorValue(valueToSet.x, valueToSet.y, valueToSet.z);
     }
 
+    /**
+     * Gets a typed handle bound to a 2D grid control element.
+     * Lazily initializes it if needed and sets its values to the parameter defaults.
+     *
+     * @param path forward slash separated unique path to the plot control element
+     * @param defaultX default x value
+     * @param defaultY default y value
+     * @return handle bound to the plot at the path
+     * @see PlotHandle
+     */
+    public PlotHandle plotXYHandle(String path, float defaultX, float defaultY){
+        return plotHandle(path, new PVector(defaultX, defaultY), false);
+    }
+
+    /**
+     * Gets a typed handle bound to a 2D grid control element with an extra z slider.
+     * Lazily initializes it if needed and sets its values to the parameter defaults.
+     *
+     * @param path forward slash separated unique path to the plot control element
+     * @param defaultX default x value
+     * @param defaultY default y value
+     * @param defaultZ default z value
+     * @return handle bound to the plot at the path
+     * @see PlotHandle
+     */
+    public PlotHandle plotXYZHandle(String path, float defaultX, float defaultY, float defaultZ){
+        return plotHandle(path, new PVector(defaultX, defaultY, defaultZ), true);
+    }
+
+    private PlotHandle plotHandle(String path, PVector defaultXYZ, boolean useZ){
+        AbstractNode existingNode = findNodeInCurrentFolder(path);
+        if(isNodeOfUnexpectedType(existingNode, PlotFolderNode.class)){
+            return new PlotHandle(null, defaultXYZ);
+        }
+        PlotFolderNode node = (PlotFolderNode) existingNode;
+        if(node == null){
+            String fullPath = getFolder() + path;
+            node = createPlotNode(fullPath, defaultXYZ, useZ);
+            node = insertNodeOrFindWinner(node, PlotFolderNode.class);
+        }
+        return new PlotHandle(node, defaultXYZ);
+    }
+
     private PlotFolderNode createPlotNode(String fullPath, PVector defaultXY, boolean useZ) {
         FolderNode folder = NodeTree.findParentFolderLazyInitPath(fullPath);
         return new PlotFolderNode(fullPath, folder, defaultXY, useZ);
@@ -597,16 +790,17 @@ public class LazyGui  {
      * @return current value of the toggle
      */
     public boolean toggle(String path, boolean defaultValue) {
-        String fullPath = getFolder() + path;
-        if(isPathTakenByUnexpectedType(fullPath, ToggleNode.class)){
+        AbstractNode existingNode = findNodeInCurrentFolder(path);
+        if(isNodeOfUnexpectedType(existingNode, ToggleNode.class)){
             return defaultValue;
         }
-        ToggleNode node = (ToggleNode) findNode(fullPath);
+        ToggleNode node = (ToggleNode) existingNode;
         if (node == null) {
+            String fullPath = getFolder() + path;
             node = createToggleNode(fullPath, defaultValue);
-            insertNodeAtItsPath(node);
+            node = insertNodeOrFindWinner(node, ToggleNode.class);
         }
-        return node.valueBoolean;
+        return node.getFrameValueBoolean();
     }
 
     /**
@@ -618,18 +812,42 @@ public class LazyGui  {
      * @param value current value of the toggle
      */
     public void toggleSet(String path, boolean value) {
-        String fullPath = getFolder() + path;
-        if(isPathTakenByUnexpectedType(fullPath, ToggleNode.class)){
+        AbstractNode existingNode = findNodeInCurrentFolder(path);
+        if(isNodeOfUnexpectedType(existingNode, ToggleNode.class)){
             return;
         }
-        ToggleNode node = (ToggleNode) findNode(fullPath);
+        ToggleNode node = (ToggleNode) existingNode;
         if (node == null) {
+            String fullPath = getFolder() + path;
             node = createToggleNode(fullPath, value);
-            insertNodeAtItsPath(node);
+            node = insertNodeOrFindWinner(node, ToggleNode.class);
         }
         node.valueBoolean = value;
     }
 
+    /**
+     * Gets a typed handle bound to a toggle control element.
+     * Lazily initializes it if needed with the specified default value.
+     *
+     * @param path forward slash separated unique path to the control element
+     * @param defaultValue the default value of the toggle
+     * @return handle bound to the toggle at the path
+     * @see ToggleHandle
+     */
+    public ToggleHandle toggleHandle(String path, boolean defaultValue) {
+        AbstractNode existingNode = findNodeInCurrentFolder(path);
+        if(isNodeOfUnexpectedType(existingNode, ToggleNode.class)){
+            return new ToggleHandle(null, defaultValue);
+        }
+        ToggleNode node = (ToggleNode) existingNode;
+        if (node == null) {
+            String fullPath = getFolder() + path;
+            node = createToggleNode(fullPath, defaultValue);
+            node = insertNodeOrFindWinner(node, ToggleNode.class);
+        }
+        return new ToggleHandle(node, defaultValue);
+    }
+
     private ToggleNode createToggleNode(String path, boolean defaultValue) {
         FolderNode folder = NodeTree.findParentFolderLazyInitPath(path);
         return new ToggleNode(path, folder, defaultValue);
@@ -649,14 +867,15 @@ public class LazyGui  {
      * @return button value that can only be true once per user interaction
      */
     public boolean button(String path) {
-        String fullPath = getFolder() + path;
-        if(isPathTakenByUnexpectedType(fullPath, ButtonNode.class)){
+        AbstractNode existingNode = findNodeInCurrentFolder(path);
+        if(isNodeOfUnexpectedType(existingNode, ButtonNode.class)){
             return false;
         }
-        ButtonNode node = (ButtonNode) findNode(fullPath);
+        ButtonNode node = (ButtonNode) existingNode;
         if (node == null) {
+            String fullPath = getFolder() + path;
             node = createButtonNode(fullPath);
-            insertNodeAtItsPath(node);
+            node = insertNodeOrFindWinner(node, ButtonNode.class);
         }
         return node.getBooleanValueAndSetItToFalse();
     }
@@ -717,20 +936,49 @@ public class LazyGui  {
      * @return currently selected string
      */
     public String radio(String path, String[] options, String defaultOption) {
-        String fullPath = getFolder() + path;
-        if(isPathTakenByUnexpectedType(fullPath, RadioFolderNode.class)){
+        AbstractNode existingNode = findNodeInCurrentFolder(path);
+        if(isNodeOfUnexpectedType(existingNode, RadioFolderNode.class)){
             return defaultOption == null ? options[0] : defaultOption;
         }
         if (options == null || options.length == 0) {
             throw new IllegalArgumentException("options parameter must not be null nor empty");
         }
-        RadioFolderNode node = (RadioFolderNode) findNode(fullPath);
+        RadioFolderNode node = (RadioFolderNode) existingNode;
         if (node == null) {
+            String fullPath = getFolder() + path;
             FolderNode parentFolder = NodeTree.findParentFolderLazyInitPath(fullPath);
             node = new RadioFolderNode(fullPath, parentFolder, options, defaultOption);
-            insertNodeAtItsPath(node);
+            node = insertNodeOrFindWinner(node, RadioFolderNode.class);
         }
-        return node.valueString;
+        return node.getFrameValueString();
+    }
+
+    /**
+     * Gets a typed handle bound to a radio control element.
+     * Lazily initializes it if needed with the specified options and default option.
+     *
+     * @param path forward slash separated unique path to the control element
+     * @param options list of options to display
+     * @param defaultOption default option to select, null selects the first option
+     * @return handle bound to the radio at the path
+     * @see RadioHandle
+     */
+    public RadioHandle radioHandle(String path, String[] options, String defaultOption) {
+        AbstractNode existingNode = findNodeInCurrentFolder(path);
+        if(isNodeOfUnexpectedType(existingNode, RadioFolderNode.class)){
+            return new RadioHandle(null, defaultOption == null ? options[0] : defaultOption);
+        }
+        if (options == null || options.length == 0) {
+            throw new IllegalArgumentException("options parameter must not be null nor empty");
+        }
+        RadioFolderNode node = (RadioFolderNode) existingNode;
+        if (node == null) {
+            String fullPath = getFolder() + path;
+            FolderNode parentFolder = NodeTree.findParentFolderLazyInitPath(fullPath);
+            node = new RadioFolderNode(fullPath, parentFolder, options, defaultOption);
+            node = insertNodeOrFindWinner(node, RadioFolderNode.class);
+        }
+        return new RadioHandle(node, defaultOption == null ? options[0] : defaultOption);
     }
 
     /**
@@ -742,18 +990,18 @@ public class LazyGui  {
      * @param optionToSet string option to set the radio element to
      */
     public void radioSet(String path, String optionToSet){
-        String fullPath = getFolder() + path;
-        if(isPathTakenByUnexpectedType(fullPath, RadioFolderNode.class)){
+        AbstractNode existingNode = findNodeInCurrentFolder(path);
+        if(isNodeOfUnexpectedType(existingNode, RadioFolderNode.class)){
             return;
         }
-        RadioFolderNode node = (RadioFolderNode) findNode(fullPath);
+        RadioFolderNode node = (RadioFolderNode) existingNode;
         if (node != null) {
             List<String> options = node.getOptions();
             if(options.contains(optionToSet)){
                 node.selectOption(optionToSet);
             }else{
                 println("attempted to set an option: " + optionToSet +
-                    " to a radio element at path: " + fullPath +
+                    " to a radio element at path: " + node.path +
                     " which does not appear in the options: " + options);
             }
         }
@@ -822,17 +1070,43 @@ public class LazyGui  {
      * @return hex and hsba values in a PickerColor object
      */
     public PickerColor colorPicker(String path, int hex) {
-        String fullPath = getFolder() + path;
-        if(isPathTakenByUnexpectedType(fullPath, ColorPickerFolderNode.class)){
+        AbstractNode existingNode = findNodeInCurrentFolder(path);
+        if(isNodeOfUnexpectedType(existingNode, ColorPickerFolderNode.class)){
             return new PickerColor(hex);
         }
-        ColorPickerFolderNode node = (ColorPickerFolderNode) findNode(fullPath);
+        ColorPickerFolderNode node = (ColorPickerFolderNode) existingNode;
         if (node == null) {
+            String fullPath = getFolder() + path;
             FolderNode folder = NodeTree.findParentFolderLazyInitPath(fullPath);
             node = new ColorPickerFolderNode(fullPath, folder, hex);
-            insertNodeAtItsPath(node);
+            node = insertNodeOrFindWinner(node, ColorPickerFolderNode.class);
         }
-        return node.getColor();
+        return node.getFrameColor();
+    }
+
+    /**
+     * Gets a typed handle bound to a color picker control element.
+     * Lazily initializes the color picker if needed with the specified default color.
+     * Reading ColorPickerHandle.hex() skips the path building, node lookup and PickerColor allocation of every colorPicker() call.
+     *
+     * @param path forward slash separated unique path to the control element
+     * @param hex default color, also works with processing 'color' type
+     * @return handle bound to the color picker at the path
+     * @see ColorPickerHandle
+     */
+    public ColorPickerHandle colorPickerHandle(String path, int hex) {
+        AbstractNode existingNode = findNodeInCurrentFolder(path);
+        if(isNodeOfUnexpectedType(existingNode, ColorPickerFolderNode.class)){
+            return new ColorPickerHandle(null, hex);
+        }
+        ColorPickerFolderNode node = (ColorPickerFolderNode) existingNode;
+        if (node == null) {
+            String fullPath = getFolder() + path;
+            FolderNode folder = NodeTree.findParentFolderLazyInitPath(fullPath);
+            node = new ColorPickerFolderNode(fullPath, folder, hex);
+            node = insertNodeOrFindWinner(node, ColorPickerFolderNode.class);
+        }
+        return new ColorPickerHandle(node, hex);
     }
 
     /**
@@ -844,19 +1118,22 @@ public class LazyGui  {
      * @param hex hex color to set, also works with processing 'color' type
      */
     public void colorPickerSet(String path, int hex) {
-        String fullPath = getFolder() + path;
-        if(isPathTakenByUnexpectedType(fullPath, ColorPickerFolderNode.class)){
+        AbstractNode existingNode = findNodeInCurrentFolder(path);
+        if(isNodeOfUnexpectedType(existingNode, ColorPickerFolderNode.class)){
             return;
         }
-        ColorPickerFolderNode node = (ColorPickerFolderNode) findNode(fullPath);
+        ColorPickerFolderNode node = (ColorPickerFolderNode) existingNode;
         if (node == null) {
+            String fullPath = getFolder() + path;
             FolderNode folder = NodeTree.findParentFolderLazyInitPath(fullPath);
-            node = new ColorPickerFolderNode(fullPath, folder, hex);
-            insertNodeAtItsPath(node);
-        } else {
-            node.setHex(hex);
-            node.loadValuesFromHex(false);
+            ColorPickerFolderNode createdNode = new ColorPickerFolderNode(fullPath, folder, hex);
+            node = insertNodeOrFindWinner(createdNode, ColorPickerFolderNode.class);
+            if (node == createdNode) {
+                return;
+            }
         }
+        node.setHex(hex);
+        node.loadValuesFromHex(false);
     }
 
     /**
@@ -868,18 +1145,21 @@ public class LazyGui  {
      * @param hueToAdd hue to add, with the hue value being normalized to the range [0,1]
      */
     public void colorPickerHueAdd(String path, float hueToAdd) {
-        String fullPath = getFolder() + path;
-        if(isPathTakenByUnexpectedType(fullPath, ColorPickerFolderNode.class)){
+        AbstractNode existingNode = findNodeInCurrentFolder(path);
+        if(isNodeOfUnexpectedType(existingNode, ColorPickerFolderNode.class)){
             return;
         }
-        ColorPickerFolderNode node = (ColorPickerFolderNode) findNode(fullPath);
+        ColorPickerFolderNode node = (ColorPickerFolderNode) existingNode;
         if (node == null) {
+            String fullPath = getFolder() + path;
             FolderNode folder = NodeTree.findParentFolderLazyInitPath(fullPath);
-            node = new ColorPickerFolderNode(path, folder, NormColorStore.color(0,1));
-            insertNodeAtItsPath(node);
-        } else {
-            node.setHue(hueToAdd);
+            ColorPickerFolderNode createdNode = new ColorPickerFolderNode(path, folder, NormColorStore.color(0,1));
+            node = insertNodeOrFindWinner(createdNode, ColorPickerFolderNode.class);
+            if (node == createdNode) {
+                return;
+            }
         }
+        node.setHue(hueToAdd);
     }
 
     /**
@@ -919,17 +1199,42 @@ public class LazyGui  {
     }
 
     private String getTextNodeValue(String path, String content){
-        String fullPath = getFolder() + path;
-        if(NodeTree.isPathTakenByUnexpectedType(fullPath, TextNode.class)){
+        AbstractNode existingNode = findNodeInCurrentFolder(path);
+        if(NodeTree.isNodeOfUnexpectedType(existingNode, TextNode.class)){
             return content;
         }
-        TextNode node = (TextNode) findNode(fullPath);
+        TextNode node = (TextNode) existingNode;
+        if (node == null) {
+            String fullPath = getFolder() + path;
+            FolderNode folder = NodeTree.findParentFolderLazyInitPath(fullPath);
+            node = new TextNode(fullPath, folder, content);
+            node = insertNodeOrFindWinner(node, TextNode.class);
+        }
+        return node.getFrameStringValue();
+    }
+
+    /**
+     * Gets a typed handle bound to an editable text field element.
+     * Lazily initializes the text input element if needed with the specified default content.
+     *
+     * @param path forward slash separated unique path to the control element
+     * @param content default value for the text content
+     * @return handle bound to the text input at the path
+     * @see TextHandle
+     */
+    public TextHandle textHandle(String path, String content){
+        AbstractNode existingNode = findNodeInCurrentFolder(path);
+        if(NodeTree.isNodeOfUnexpectedType(existingNode, TextNode.class)){
+            return new TextHandle(null, content);
+        }
+        TextNode node = (TextNode) existingNode;
         if (node == null) {
+            String fullPath = getFolder() + path;
             FolderNode folder = NodeTree.findParentFolderLazyInitPath(fullPath);
             node = new TextNode(fullPath, folder, content);
-            insertNodeAtItsPath(node);
+            node = insertNodeOrFindWinner(node, TextNode.class);
         }
-        return node.getStringValue();
+        return new TextHandle(node, content);
     }
 
     /**
@@ -945,15 +1250,16 @@ public class LazyGui  {
     }
 
     private void setTextNodeContent(String path, String content){
-        String fullPath = getFolder() + path;
-        TextNode node = (TextNode) findNode(fullPath);
-        if(NodeTree.isPathTakenByUnexpectedType(fullPath, TextNode.class)){
+        AbstractNode existingNode = findNodeInCurrentFolder(path);
+        if(NodeTree.isNodeOfUnexpectedType(existingNode, TextNode.class)){
             return;
         }
+        TextNode node = (TextNode) existingNode;
         if (node == null) {
+            String fullPath = getFolder() + path;
             FolderNode folder = NodeTree.findParentFolderLazyInitPath(fullPath);
             node = new TextNode(fullPath, folder, content);
-            insertNodeAtItsPath(node);
+            node = insertNodeOrFindWinner(node, TextNode.class);
         }
         node.setStringValue(content);
     }
@@ -991,18 +1297,48 @@ public class LazyGui  {
      * @return PGraphics ready to be displayed as an image
      */
     public PGraphics gradient(String path, int[] defaultColors) {
-        String fullPath = getFolder() + path;
-        if(isPathTakenByUnexpectedType(fullPath, GradientPickerFolderNode.class)){
+        GradientPickerFolderNode node = findOrCreateGradientPicker(path, defaultColors);
+        if (node == null) {
             return null;
         }
-        GradientPickerFolderNode node = (GradientPickerFolderNode) findNode(fullPath);
+        return node.getOutputGraphics();
+    }
+
+    /**
+     * Gets a gradient as an image with a resolution of your choice, which can be much smaller than the sketch,
+     * for example 1 pixel wide for a vertical gradient that only gets stretched over the screen anyway.
+     * The image is kept between frames and only gets rendered again when the gradient or the requested size changes.
+     * Lazily initializes the gradient picker if needed.
+     *
+     * @param path forward slash separated unique path to the control element
+     * @param width image width in pixels
+     * @param height image height in pixels
+     * @return PGraphics after endDraw() - ready to be displayed as an image
+     */
+    public PGraphics gradient(String path, int width, int height) {
+        GradientPickerFolderNode node = findOrCreateGradientPicker(path, null);
         if (node == null) {
-            FolderNode parentFolder = NodeTree.findParentFolderLazyInitPath(fullPath);
-            node = new GradientPickerFolderNode(fullPath, parentFolder, defaultColors);
-            insertNodeAtItsPath(node);
+            return null;
         }
-        return node.getOutputGraphics();
+        return node.getOutputGraphics(width, height);
+    }
+
+    /**
+     * Frees the image of a gradient that you no longer need, for example after drawing it into some other texture.
+     * The image goes back into a pool of offscreen surfaces shared with the rest of the GUI,
+     * so the PGraphics you got earlier must not be used anymore.
+     * Getting the gradient image again renders a new one, while the gradient picker itself and its colors are kept.
+     *
+     * @param path forward slash separated unique path to the control element
+     */
+    public void gradientRelease(String path) {
+        AbstractNode existingNode = findNodeInCurrentFolder(path);
+        if (existingNode == null || isNodeOfUnexpectedType(existingNode, GradientPickerFolderNode.class)) {
+            return;
+        }
+        ((GradientPickerFolderNode) existingNode).releaseOutputGraphics();
     }
+
     /**
      * Gets a single color from a gradient at the specified position in the range [0, 1].
      * Lazily initializes the gradient picker if needed with autogenerated grayscale colors.
@@ -1013,17 +1349,186 @@ public class LazyGui  {
      * @return PickerColor color at the specified position in the gradient
      */
     public PickerColor gradientColorAt(String path, float position) {
-        String fullPath = getFolder() + path;
-        if(isPathTakenByUnexpectedType(fullPath, GradientPickerFolderNode.class)){
+        GradientPickerFolderNode node = findOrCreateGradientPicker(path, null);
+        if (node == null) {
             return null;
         }
-        GradientPickerFolderNode node = (GradientPickerFolderNode) findNode(fullPath);
+        return node.getGradientColorAt(position);
+    }
+
+    /**
+     * Gets many colors from a gradient at once, meant for coloring thousands of things per frame.
+     * Writes plain processing ARGB colors into the output array instead of allocating a PickerColor for each of them.
+     * Lazily initializes the gradient picker if needed with autogenerated grayscale colors.
+     *
+     * @param path forward slash separated unique path to the control element
+     * @param positions normalized positions in the [0, 1] range you'd like to know the colors of
+     * @param outArgb array to write the colors into, must be at least as long as the positions
+     */
+    public void gradientColors(String path, float[] positions, int[] outArgb) {
+        gradientColors(path, positions, outArgb, false);
+    }
+
+    /**
+     * Gets many colors from a gradient at once, meant for coloring thousands of things per frame.
+     * Writes plain processing ARGB colors into the output array instead of allocating a PickerColor for each of them.
+     * Lazily initializes the gradient picker if needed with autogenerated grayscale colors.
+     *
+     * @param path forward slash separated unique path to the control element
+     * @param positions normalized positions in the [0, 1] range you'd like to know the colors of
+     * @param outArgb array to write the colors into, must be at least as long as the positions
+     * @param interpolate true to smoothly blend between the lookup table entries closest to each position,
+     *                    false to take the closest entry just like gradientColorAt() does
+     */
+    public void gradientColors(String path, float[] positions, int[] outArgb, boolean interpolate) {
+        GradientPickerFolderNode node = findOrCreateGradientPicker(path, null);
         if (node == null) {
+            return;
+        }
+        node.getGradientColors(positions, outArgb, interpolate);
+    }
+
+    /**
+     * Gets the whole gradient as a lookup table of evenly spaced colors with a resolution of your choice.
+     * The colors are evaluated exactly at the center of each cell, so a higher resolution gives a smoother gradient.
+     * Lazily initializes the gradient picker if needed with autogenerated grayscale colors.
+     *
+     * @param path forward slash separated unique path to the control element
+     * @param resolution number of colors in the lookup table
+     * @return new array of processing ARGB colors going from the start to the end of the gradient
+     */
+    public int[] gradientLut(String path, int resolution) {
+        int[] lut = new int[max(1, resolution)];
+        return gradientLut(path, lut);
+    }
+
+    /**
+     * Fills an existing array with the whole gradient as a lookup table of evenly spaced colors,
+     * which avoids allocating a new array when it gets refreshed every frame.
+     * The colors are evaluated exactly at the center of each cell, so a longer array gives a smoother gradient.
+     * Lazily initializes the gradient picker if needed with autogenerated grayscale colors.
+     *
+     * @param path forward slash separated unique path to the control element
+     * @param outArgb array to fill with processing ARGB colors, its length is the resolution of the lookup table
+     * @return the same array that was passed in, or null if the path holds some other control element
+     */
+    public int[] gradientLut(String path, int[] outArgb) {
+        GradientPickerFolderNode node = findOrCreateGradientPicker(path, null);
+        if (node == null) {
+            return null;
+        }
+        node.getGradientLookUpTable(outArgb);
+        return outArgb;
+    }
+
+    private GradientPickerFolderNode findOrCreateGradientPicker(String path, int[] defaultColors) {
+        AbstractNode existingNode = findNodeInCurrentFolder(path);
+        if(isNodeOfUnexpectedType(existingNode, GradientPickerFolderNode.class)){
+            return null;
+        }
+        GradientPickerFolderNode node = (GradientPickerFolderNode) existingNode;
+        if (node == null) {
+            String fullPath = getFolder() + path;
             FolderNode parentFolder = NodeTree.findParentFolderLazyInitPath(fullPath);
-            node = new GradientPickerFolderNode(fullPath, parentFolder, null);
-            insertNodeAtItsPath(node);
+            node = new GradientPickerFolderNode(fullPath, parentFolder, defaultColors);
+            node = insertNodeOrFindWinner(node, GradientPickerFolderNode.class);
         }
-        return node.getGradientColorAt(position);
+        return node;
+    }
+
+    /**
+     * Creates all the control elements declared in the schema in one batch, which is much faster than creating them one by one
+     * with the individual control methods when there are thousands of them.
+     * Every parent folder is looked up or created only once, the nodes are created in one pass with their saved state
+     * loaded from the last loaded save if there is one, and then each folder receives all of its new children at once.
+     * Paths are relative to the current folder and paths that already hold some control are skipped.
+     * The number of created controls and the time it took can be read from the schema afterwards.
+     *
+     * @param schema control elements to create
+     * @see ControlSchema
+     */
+    public void registerControls(ControlSchema schema) {
+        long startNanos = System.nanoTime();
+        String folderPrefix = getFolder();
+        Map<String, FolderNode> parentFoldersByPath = new HashMap<>();
+        Map<FolderNode, List<AbstractNode>> newChildrenByFolder = new LinkedHashMap<>();
+        Set<String> newPaths = new HashSet<>();
+        int createdControlCount = 0;
+        boolean sliderShaderLoaded = false;
+        for (ControlSchema.Entry entry : schema.entries) {
+            String fullPath = folderPrefix + entry.path;
+            if (!newPaths.add(fullPath)) {
+                continue;
+            }
+            AbstractNode existingNode = NodeTree.findNode(fullPath);
+            if (existingNode == null) {
+                // an evicted control comes back with its value instead of getting replaced by a new one
+                existingNode = EvictionStore.tryRevive(fullPath);
+            }
+            if (existingNode != null) {
+                isNodeOfUnexpectedType(existingNode, entry.nodeType);
+                continue;
+            }
+            String folderPath = NodePaths.getPathWithoutName(fullPath);
+            FolderNode folder = parentFoldersByPath.get(folderPath);
+            if (folder == null) {
+                folder = NodeTree.findParentFolderLazyInitPath(fullPath);
+                parentFoldersByPath.put(folderPath, folder);
+            }
+            AbstractNode node = entry.createNode.apply(fullPath, folder);
+            if (!sliderShaderLoaded && node instanceof SliderNode) {
+                ((SliderNode) node).initSliderBackgroundShader();
+                sliderShaderLoaded = true;
+            }
+            newChildrenByFolder.computeIfAbsent(folder, f -> new ArrayList<>()).add(node);
+            createdControlCount++;
+        }
+        synchronized (NodeTree.class) {
+            for (Map.Entry<FolderNode, List<AbstractNode>> folderWithChildren : newChildrenByFolder.entrySet()) {
+                List<AbstractNode> children = folderWithChildren.getValue();
+                for (Iterator<AbstractNode> it = children.iterator(); it.hasNext(); ) {
+                    AbstractNode node = it.next();
+                    if (NodeTree.findNode(node.path) != null) { // created by another thread in the meantime
+                        NodeTree.discardUninsertedNode(node);
+                        it.remove();
+                        createdControlCount--;
+                    }
+                }
+                folderWithChildren.getKey().addChildren(children);
+                for (AbstractNode node : children) {
+                    NodeTree.indexNodeAndChildren(node);
+                }
+            }
+        }
+        float registrationMillis = (System.nanoTime() - startNanos) / 1e6f;
+        schema.setLastRegistrationResult(createdControlCount, registrationMillis);
+    }
+
+    /**
+     * Opts into removing the control elements inside a folder that have not been queried for some number of frames.
+     * Meant for paths generated in loops like "agents/" + i + "/speed" when the number of agents can shrink,
+     * so that the unused controls do not stay in the GUI and in the saves forever.
+     * The folder itself is kept and any sub-folders that become empty are removed too.
+     * An evicted control remembers its value and comes back when its path is queried again.
+     * Reading a control through its typed handle counts as querying it.
+     *
+     * @param folderPath forward slash separated path to the folder, relative to the current folder
+     * @param maxFramesWithoutQuery number of frames a control can go unqueried before it is evicted, zero or less turns the eviction off
+     */
+    public void evictStaleNodes(String folderPath, int maxFramesWithoutQuery) {
+        EvictionStore.setEvictionRule(getFolder() + folderPath, maxFramesWithoutQuery);
+    }
+
+    /**
+     * Removes all control elements and folders whose full path matches the regular expression right now.
+     * Like with stale node eviction, a removed control remembers its value and comes back when its path is queried again.
+     * Parts of composite controls like the individual sliders of a plot are never removed on their own.
+     *
+     * @param fullPathRegex regular expression to match against the full paths of the nodes, ignoring the current folder
+     * @return number of removed nodes not counting the contents of removed folders
+     */
+    public int evictNodes(String fullPathRegex) {
+        return EvictionStore.evictNodesMatching(fullPathRegex);
     }
 
     /**
@@ -1037,24 +1542,12 @@ public class LazyGui  {
      * @see LazyGui#getFolder()
      */
     public void pushFolder(String folderName){
-        if(folderName.equals("options")){
-            int i = 0;
-        }
-        if(pathPrefix.size() >= stackSizeWarningLevel && !printedPushWarningAlready){
+        if(getPathPrefix().size() >= stackSizeWarningLevel && !printedPushWarningAlready){
             println("Too many calls to pushFolder() - stack size reached the warning limit of " + stackSizeWarningLevel +
                     ", possibly due to runaway recursion");
             printedPushWarningAlready = true;
         }
-        String slashSafeFolderName = folderName;
-        if(slashSafeFolderName.startsWith("/")){
-            // remove leading slash
-            slashSafeFolderName = slashSafeFolderName.substring(1);
-        }
-        if(slashSafeFolderName.endsWith("/") && !slashSafeFolderName.endsWith("\\/")){
-            // remove trailing slash if un-escaped
-            slashSafeFolderName = slashSafeFolderName.substring(0, slashSafeFolderName.length()-1);
-        }
-        pathPrefix.add(0, slashSafeFolderName);
+        getPathPrefix().push(folderName);
     }
 
     /**
@@ -1065,13 +1558,11 @@ public class LazyGui  {
      * This is useful for not repeating the whole path string every time you want to call a control element.
      */
     public void popFolder(){
-        if(pathPrefix.isEmpty() && printedPopWarningAlready){
+        if(getPathPrefix().isEmpty() && printedPopWarningAlready){
             println("Too many calls to popFolder() - there is nothing to pop");
             printedPopWarningAlready = true;
         }
-        if(!pathPrefix.isEmpty()){
-            pathPrefix.remove(0);
-        }
+        getPathPrefix().pop();
     }
 
     /**
@@ -1082,7 +1573,7 @@ public class LazyGui  {
      * and so the library user doesn't have to pop all of their folders, since they get cleared every frame.
      */
     public void clearFolder(){
-        pathPrefix.clear();
+        getPathPrefix().clear();
     }
 
     /**
@@ -1092,16 +1583,45 @@ public class LazyGui  {
      * @return entire path prefix stack concatenated to one string
      */
     public String getFolder(){
-        if(pathPrefix.isEmpty()){
-            return "";
+        return getPathPrefix().getPrefix();
+    }
+
+    /**
+     * Gets the path prefix stack of the calling thread, so that worker threads using pushFolder() and popFolder()
+     * never mix up their folders with the ones used by draw() or by other workers.
+     * The thread that created the GUI gets its own stack without going through a thread local lookup.
+     */
+    private PathPrefixStack getPathPrefix(){
+        if(Thread.currentThread() == mainThread){
+            return mainThreadPathPrefix;
         }
-        StringBuilder sb = new StringBuilder();
-        for (int i = pathPrefix.size() - 1; i >= 0; i--) {
-            String folder = pathPrefix.get(i);
-            sb.append(folder);
-            sb.append("/");
+        return otherThreadPathPrefixes.get();
+    }
+
+    /**
+     * Finds a node relative to the current path prefix stack.
+     * Single segment paths are looked up by name straight inside the current folder without building the full path.
+     * @param path path relative to the current folder
+     * @return the node at the path or null if there is no such node yet
+     */
+    private AbstractNode findNodeInCurrentFolder(String path){
+        FolderNode currentFolder = getPathPrefix().getCurrentFolder();
+        if(currentFolder != null && NodePaths.isSingleUnescapedSegment(path)){
+            AbstractNode child = currentFolder.findChildByPathSegment(path);
+            if(child != null){
+                child.lastQueriedFrame = app.frameCount;
+                return child;
+            }
+        }
+        String fullPath = getFolder() + path;
+        AbstractNode node = findNode(fullPath);
+        if(node == null){
+            node = EvictionStore.tryRevive(fullPath);
+        }
+        if(node != null){
+            node.lastQueriedFrame = app.frameCount;
         }
-        return sb.toString();
+        return node;
     }
 
     /**
@@ -1125,11 +1645,7 @@ public class LazyGui  {
      * See {@link #hide hide(String path)}
      */
     public void hideCurrentFolder(){
-        String fullPath = getFolder();
-        if(fullPath.endsWith("/")){
-            fullPath = fullPath.substring(0, fullPath.length() - 1);
-        }
-        NodeTree.hideAtFullPath(fullPath);
+        NodeTree.hideAtFullPath(getPathPrefix().getCurrentFolderPath());
     }
 
     /**
@@ -1152,11 +1668,7 @@ public class LazyGui  {
      * See {@link #show show(String path)}
      */
     public void showCurrentFolder(){
-        String fullPath = getFolder();
-        if(fullPath.endsWith("/")){
-            fullPath = fullPath.substring(0, fullPath.length() - 1);
-        }
-        NodeTree.showAtFullPath(fullPath);
+        NodeTree.showAtFullPath(getPathPrefix().getCurrentFolderPath());
     }
 
     /**
@@ -1175,13 +1687,6 @@ public class LazyGui  {
         return FontStore.getSideFont();
     }
 
-    private void updateAllNodeValuesRegardlessOfParentWindowOpenness() {
-        List<AbstractNode> allNodes = getAllNodesAsList();
-        for(AbstractNode node : allNodes){
-            node.updateValuesRegardlessOfParentWindowOpenness();
-        }
-    }
-
     /**
      * Should be called at the end of LazyGui.draw().
      * Calling this at the start of draw() would not allow the user to take a screenshot of the gui.
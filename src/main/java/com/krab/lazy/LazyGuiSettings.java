@@ -1,8 +1,10 @@
 package com.krab.lazy;
 
 import com.krab.lazy.stores.FontStore;
+import com.krab.lazy.stores.FrameValueStore;
 import com.krab.lazy.stores.JsonSaveStore;
 import com.krab.lazy.stores.LayoutStore;
+import com.krab.lazy.stores.RefreshRateStore;
 import com.krab.lazy.utils.MouseHiding;
 import com.krab.lazy.themes.Theme;
 import com.krab.lazy.themes.ThemeStore;
@@ -36,6 +38,10 @@ public class LazyGuiSettings {
     private ThemeType themePreset = null;
     private String pathToSpecificSaveToLoadOnStartup = null;
     private String sketchNameOverride = null;
+    private boolean frameConsistentValues;
+    private float guiRefreshRate;
+    private float guiIdleRefreshRate;
+    private int guiIdleDelayMillis;
 
     /**
      * Constructor, call this before any other function here.
@@ -64,6 +70,10 @@ public class LazyGuiSettings {
         this.mainFontSize = FontStore.mainFontSizeDefault;
         this.sideFontSize = FontStore.sideFontSizeDefault;
         this.autosuggestWindowWidth = LayoutStore.getAutosuggestWindowWidth();
+        this.frameConsistentValues = FrameValueStore.isEnabled();
+        this.guiRefreshRate = RefreshRateStore.getRefreshRate();
+        this.guiIdleRefreshRate = RefreshRateStore.getIdleRefreshRate();
+        this.guiIdleDelayMillis = RefreshRateStore.getIdleDelayMillis();
     }
 
     void applySettingsOntoGuiAtStartup() {
@@ -74,6 +84,10 @@ public class LazyGuiSettings {
         MouseHiding.shouldConfineToWindow = mouseShouldConfineToWindow;
         LayoutStore.cell = cellSize;
         LayoutStore.setAutosuggestWindowWidth(autosuggestWindowWidth);
+        FrameValueStore.setEnabled(frameConsistentValues);
+        RefreshRateStore.setRefreshRate(guiRefreshRate);
+        RefreshRateStore.setIdleRefreshRate(guiIdleRefreshRate);
+        RefreshRateStore.setIdleDelayMillis(guiIdleDelayMillis);
         FontStore.mainFontSizeDefault = mainFontSize;
         FontStore.sideFontSizeDefault = sideFontSize;
         if (themeCustom != null) {
@@ -273,6 +287,61 @@ public class LazyGuiSettings {
         return this;
     }
 
+    /**
+     * Makes every control value stay the same for the whole frame, no matter how many times or from which thread it is read.
+     * Changes made by the mouse, the keyboard or by setters like sliderSet() become visible to the sketch from the next frame.
+     * This gives multi-pass renderers and worker threads deterministic parameters without taking any locks.
+     *
+     * @param frameConsistentValues should the control values only change once per frame?
+     * @return this settings object for chaining statements easily
+     */
+    public LazyGuiSettings setFrameConsistentValues(boolean frameConsistentValues){
+        this.frameConsistentValues = frameConsistentValues;
+        return this;
+    }
+
+    /**
+     * Lets the GUI update and redraw itself at its own rate, independent of the sketch frame rate.
+     * The last drawn GUI image still gets displayed in every frame and the control values stay live in every frame,
+     * only the visual reaction to them follows this rate.
+     * Useful with a high or uncapped sketch frame rate where drawing the GUI every frame would be wasted work.
+     *
+     * @param guiRefreshRate GUI refreshes per second, zero or less to refresh in every frame, which is the default
+     * @return this settings object for chaining statements easily
+     * @see #setGuiIdleRefreshRate(float)
+     */
+    public LazyGuiSettings setGuiRefreshRate(float guiRefreshRate){
+        this.guiRefreshRate = guiRefreshRate;
+        return this;
+    }
+
+    /**
+     * Sets a lower GUI refresh rate to use when no mouse or keyboard input has arrived for a while.
+     * Any input switches back to the normal GUI refresh rate right away.
+     * An idle rate higher than the normal GUI refresh rate is ignored, the GUI then stays at the normal rate while idle.
+     *
+     * @param guiIdleRefreshRate GUI refreshes per second while idle, zero or less to keep the normal GUI refresh rate, which is the default
+     * @return this settings object for chaining statements easily
+     * @see #setGuiRefreshRate(float)
+     * @see #setGuiIdleDelayMillis(int)
+     */
+    public LazyGuiSettings setGuiIdleRefreshRate(float guiIdleRefreshRate){
+        this.guiIdleRefreshRate = guiIdleRefreshRate;
+        return this;
+    }
+
+    /**
+     * Sets how long the GUI waits without any mouse or keyboard input before switching to the idle refresh rate.
+     *
+     * @param guiIdleDelayMillis time without input in milliseconds, 2000 by default
+     * @return this settings object for chaining statements easily
+     * @see #setGuiIdleRefreshRate(float)
+     */
+    public LazyGuiSettings setGuiIdleDelayMillis(int guiIdleDelayMillis){
+        this.guiIdleDelayMillis = guiIdleDelayMillis;
+        return this;
+    }
+
     boolean getShouldLoadLatestSaveOnStartup() {
         return loadLatestSaveOnStartup;
     }
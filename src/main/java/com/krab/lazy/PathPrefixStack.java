@@ -0,0 +1,121 @@
+package com.krab.lazy;
+
+import com.krab.lazy.nodes.AbstractNode;
+import com.krab.lazy.nodes.FolderNode;
+import com.krab.lazy.nodes.NodeType;
+import com.krab.lazy.stores.NodeTree;
+
+import java.util.Arrays;
+
+/**
+ * The path prefix stack behind LazyGui.pushFolder() and LazyGui.popFolder().
+ * Every depth remembers the folder name pushed there along with the full prefix it produced,
+ * so pushing the same folders in the same order every frame reuses the prefix strings from the previous frame
+ * instead of concatenating them again.
+ * Each depth also caches the FolderNode at its prefix once that folder exists, which allows relative lookups
+ * straight inside the current folder without building the full path.
+ */
+class PathPrefixStack {
+    private String[] pushedNames = new String[16];
+    private String[] parentPrefixes = new String[16];
+    private String[] folderPaths = new String[16];
+    private String[] prefixes = new String[16];
+    private FolderNode[] folders = new FolderNode[16];
+    private int size = 0;
+
+    void push(String folderName) {
+        ensureCapacity(size + 1);
+        String parentPrefix = getPrefix();
+        boolean isCachedAtThisDepth = prefixes[size] != null &&
+                parentPrefixes[size] == parentPrefix &&
+                folderName.equals(pushedNames[size]);
+        if (!isCachedAtThisDepth) {
+            pushedNames[size] = folderName;
+            parentPrefixes[size] = parentPrefix;
+            folderPaths[size] = parentPrefix + getSlashSafeFolderName(folderName);
+            prefixes[size] = folderPaths[size] + "/";
+            folders[size] = null;
+        }
+        size++;
+    }
+
+    void pop() {
+        if (size > 0) {
+            size--;
+        }
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the whole stack as one string with a forward slash after each folder name, empty when nothing is pushed
+     */
+    String getPrefix() {
+        if (size == 0) {
+            return "";
+        }
+        return prefixes[size - 1];
+    }
+
+    /**
+     * @return the full path of the current folder without the trailing slash, empty for the root
+     */
+    String getCurrentFolderPath() {
+        if (size == 0) {
+            return "";
+        }
+        return folderPaths[size - 1];
+    }
+
+    /**
+     * Finds the folder node at the current prefix, caching it for later calls once it exists.
+     * @return the current folder or null when it has not been created yet or the path is taken by a non-folder node
+     */
+    FolderNode getCurrentFolder() {
+        if (size == 0) {
+            return NodeTree.getRoot();
+        }
+        int top = size - 1;
+        FolderNode cachedFolder = folders[top];
+        if (cachedFolder == null || NodeTree.findNode(cachedFolder.path) != cachedFolder) {
+            AbstractNode node = NodeTree.findNode(folderPaths[top]);
+            folders[top] = node != null && node.type == NodeType.FOLDER ? (FolderNode) node : null;
+        }
+        return folders[top];
+    }
+
+    private static String getSlashSafeFolderName(String folderName) {
+        String slashSafeFolderName = folderName;
+        if(slashSafeFolderName.startsWith("/")){
+            // remove leading slash
+            slashSafeFolderName = slashSafeFolderName.substring(1);
+        }
+        if(slashSafeFolderName.endsWith("/") && !slashSafeFolderName.endsWith("\\/")){
+            // remove trailing slash if un-escaped
+            slashSafeFolderName = slashSafeFolderName.substring(0, slashSafeFolderName.length()-1);
+        }
+        return slashSafeFolderName;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= prefixes.length) {
+            return;
+        }
+        int newLength = prefixes.length * 2;
+        pushedNames = Arrays.copyOf(pushedNames, newLength);
+        parentPrefixes = Arrays.copyOf(parentPrefixes, newLength);
+        folderPaths = Arrays.copyOf(folderPaths, newLength);
+        prefixes = Arrays.copyOf(prefixes, newLength);
+        folders = Arrays.copyOf(folders, newLength);
+    }
+}
@@ -0,0 +1,85 @@
+package com.krab.lazy;
+
+import com.krab.lazy.nodes.PlotFolderNode;
+import com.krab.lazy.stores.GlobalReferences;
+import processing.core.PVector;
+
+/**
+ * Typed handle bound to a plot control element, obtained from LazyGui.plotXYHandle() or LazyGui.plotXYZHandle().
+ * Meant to be kept in a variable after setup() and read in hot loops inside draw() without any path lookup.
+ * Use x(), y(), z() or get(PVector) for allocation free reads.
+ * When the path was already taken by a different type of control element the handle is unbound and always returns its default value.
+ * @see LazyGui#plotXYHandle(String, float, float)
+ */
+public class PlotHandle {
+    private final PlotFolderNode node;
+    private final PVector defaultValue;
+
+    PlotHandle(PlotFolderNode node, PVector defaultValue) {
+        this.node = node;
+        this.defaultValue = defaultValue == null ? new PVector() : defaultValue.copy();
+    }
+
+    public float x() {
+        if (node == null) {
+            return defaultValue.x;
+        }
+        node.lastQueriedFrame = GlobalReferences.app.frameCount;
+        return node.getFrameX();
+    }
+
+    public float y() {
+        if (node == null) {
+            return defaultValue.y;
+        }
+        node.lastQueriedFrame = GlobalReferences.app.frameCount;
+        return node.getFrameY();
+    }
+
+    /**
+     * @return the z value or 0 when the plot has no z slider
+     */
+    public float z() {
+        if (node == null) {
+            return defaultValue.z;
+        }
+        node.lastQueriedFrame = GlobalReferences.app.frameCount;
+        return node.getFrameZ();
+    }
+
+    /**
+     * Copies the current value into an existing vector to avoid allocating a new one.
+     * @param target vector to overwrite with the current value
+     * @return the target vector
+     */
+    public PVector get(PVector target) {
+        return target.set(x(), y(), z());
+    }
+
+    /**
+     * Gets the current value as a newly allocated vector.
+     * @return new vector with the current value
+     */
+    public PVector get() {
+        return get(new PVector());
+    }
+
+    /**
+     * Sets the value without requiring user interaction, z is ignored when the plot has no z slider.
+     * @param x x value to set
+     * @param y y value to set
+     * @param z z value to set
+     */
+    public void set(float x, float y, float z) {
+        if (node != null) {
+            node.setVectorValue(x, y, z);
+        }
+    }
+
+    /**
+     * @return false when the path was taken by a different type of control element and this handle only returns the default
+     */
+    public boolean isBound() {
+        return node != null;
+    }
+}
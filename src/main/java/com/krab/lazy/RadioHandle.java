@@ -0,0 +1,49 @@
+package com.krab.lazy;
+
+import com.krab.lazy.nodes.RadioFolderNode;
+import com.krab.lazy.stores.GlobalReferences;
+
+/**
+ * Typed handle bound to a radio control element, obtained from LazyGui.radioHandle().
+ * Meant to be kept in a variable after setup() and read in hot loops inside draw() without any path lookup.
+ * When the path was already taken by a different type of control element the handle is unbound and always returns its default value.
+ * @see LazyGui#radioHandle(String, String[], String)
+ */
+public class RadioHandle {
+    private final RadioFolderNode node;
+    private final String defaultOption;
+
+    RadioHandle(RadioFolderNode node, String defaultOption) {
+        this.node = node;
+        this.defaultOption = defaultOption;
+    }
+
+    /**
+     * Gets the currently selected option without any allocation or lookup.
+     * @return currently selected option
+     */
+    public String get() {
+        if (node == null) {
+            return defaultOption;
+        }
+        node.lastQueriedFrame = GlobalReferences.app.frameCount;
+        return node.getFrameValueString();
+    }
+
+    /**
+     * Selects an option without requiring user interaction, ignored when the option is not one of the radio's options.
+     * @param optionToSet option to select
+     */
+    public void set(String optionToSet) {
+        if (node != null && node.getOptions().contains(optionToSet)) {
+            node.selectOption(optionToSet);
+        }
+    }
+
+    /**
+     * @return false when the path was taken by a different type of control element and this handle only returns the default
+     */
+    public boolean isBound() {
+        return node != null;
+    }
+}
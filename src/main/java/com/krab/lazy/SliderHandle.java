@@ -0,0 +1,60 @@
+package com.krab.lazy;
+
+import com.krab.lazy.nodes.SliderNode;
+import com.krab.lazy.stores.GlobalReferences;
+
+/**
+ * Typed handle bound to a float slider control element, obtained from LazyGui.sliderHandle().
+ * Meant to be kept in a variable after setup() and read in hot loops inside draw(),
+ * because reading it skips the path concatenation, type check and node lookup that every LazyGui.slider() call does.
+ * When the path was already taken by a different type of control element the handle is unbound and always returns its default value.
+ * @see LazyGui#sliderHandle(String, float, float, float)
+ */
+public class SliderHandle {
+    private final SliderNode node;
+    private final float defaultValue;
+
+    SliderHandle(SliderNode node, float defaultValue) {
+        this.node = node;
+        this.defaultValue = defaultValue;
+    }
+
+    /**
+     * Gets the current value of the slider without any allocation or lookup.
+     * @return current float value of the slider
+     */
+    public float get() {
+        if (node == null) {
+            return defaultValue;
+        }
+        node.lastQueriedFrame = GlobalReferences.app.frameCount;
+        return node.getFrameValueFloat();
+    }
+
+    /**
+     * Sets the value of the slider without requiring user interaction.
+     * @param value value to set the slider to
+     */
+    public void set(float value) {
+        if (node != null) {
+            node.valueFloat = value;
+        }
+    }
+
+    /**
+     * Adds to the value of the slider without requiring user interaction.
+     * @param amountToAdd value to add to the current value
+     */
+    public void add(float amountToAdd) {
+        if (node != null) {
+            node.valueFloat += amountToAdd;
+        }
+    }
+
+    /**
+     * @return false when the path was taken by a different type of control element and this handle only returns the default
+     */
+    public boolean isBound() {
+        return node != null;
+    }
+}
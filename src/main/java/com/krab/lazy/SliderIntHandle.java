@@ -0,0 +1,49 @@
+package com.krab.lazy;
+
+import com.krab.lazy.nodes.SliderIntNode;
+import com.krab.lazy.stores.GlobalReferences;
+
+/**
+ * Typed handle bound to an integer slider control element, obtained from LazyGui.sliderIntHandle().
+ * Meant to be kept in a variable after setup() and read in hot loops inside draw() without any path lookup.
+ * When the path was already taken by a different type of control element the handle is unbound and always returns its default value.
+ * @see LazyGui#sliderIntHandle(String, int, int, int)
+ */
+public class SliderIntHandle {
+    private final SliderIntNode node;
+    private final int defaultValue;
+
+    SliderIntHandle(SliderIntNode node, int defaultValue) {
+        this.node = node;
+        this.defaultValue = defaultValue;
+    }
+
+    /**
+     * Gets the current value of the slider without any allocation or lookup.
+     * @return current integer value of the slider
+     */
+    public int get() {
+        if (node == null) {
+            return defaultValue;
+        }
+        node.lastQueriedFrame = GlobalReferences.app.frameCount;
+        return node.getFrameIntValue();
+    }
+
+    /**
+     * Sets the value of the slider without requiring user interaction.
+     * @param value value to set the slider to
+     */
+    public void set(int value) {
+        if (node != null) {
+            node.valueFloat = value;
+        }
+    }
+
+    /**
+     * @return false when the path was taken by a different type of control element and this handle only returns the default
+     */
+    public boolean isBound() {
+        return node != null;
+    }
+}
@@ -0,0 +1,49 @@
+package com.krab.lazy;
+
+import com.krab.lazy.nodes.TextNode;
+import com.krab.lazy.stores.GlobalReferences;
+
+/**
+ * Typed handle bound to a text control element, obtained from LazyGui.textHandle().
+ * Meant to be kept in a variable after setup() and read in hot loops inside draw() without any path lookup.
+ * When the path was already taken by a different type of control element the handle is unbound and always returns its default value.
+ * @see LazyGui#textHandle(String, String)
+ */
+public class TextHandle {
+    private final TextNode node;
+    private final String defaultContent;
+
+    TextHandle(TextNode node, String defaultContent) {
+        this.node = node;
+        this.defaultContent = defaultContent;
+    }
+
+    /**
+     * Gets the current text without any allocation or lookup.
+     * @return current text content
+     */
+    public String get() {
+        if (node == null) {
+            return defaultContent;
+        }
+        node.lastQueriedFrame = GlobalReferences.app.frameCount;
+        return node.getFrameStringValue();
+    }
+
+    /**
+     * Sets the text without requiring user interaction.
+     * @param content text to set
+     */
+    public void set(String content) {
+        if (node != null) {
+            node.setStringValue(content);
+        }
+    }
+
+    /**
+     * @return false when the path was taken by a different type of control element and this handle only returns the default
+     */
+    public boolean isBound() {
+        return node != null;
+    }
+}
@@ -0,0 +1,49 @@
+package com.krab.lazy;
+
+import com.krab.lazy.nodes.ToggleNode;
+import com.krab.lazy.stores.GlobalReferences;
+
+/**
+ * Typed handle bound to a toggle control element, obtained from LazyGui.toggleHandle().
+ * Meant to be kept in a variable after setup() and read in hot loops inside draw() without any path lookup.
+ * When the path was already taken by a different type of control element the handle is unbound and always returns its default value.
+ * @see LazyGui#toggleHandle(String, boolean)
+ */
+public class ToggleHandle {
+    private final ToggleNode node;
+    private final boolean defaultValue;
+
+    ToggleHandle(ToggleNode node, boolean defaultValue) {
+        this.node = node;
+        this.defaultValue = defaultValue;
+    }
+
+    /**
+     * Gets the current state of the toggle without any allocation or lookup.
+     * @return current boolean state of the toggle
+     */
+    public boolean get() {
+        if (node == null) {
+            return defaultValue;
+        }
+        node.lastQueriedFrame = GlobalReferences.app.frameCount;
+        return node.getFrameValueBoolean();
+    }
+
+    /**
+     * Sets the state of the toggle without requiring user interaction.
+     * @param value boolean state to set the toggle to
+     */
+    public void set(boolean value) {
+        if (node != null) {
+            node.valueBoolean = value;
+        }
+    }
+
+    /**
+     * @return false when the path was taken by a different type of control element and this handle only returns the default
+     */
+    public boolean isBound() {
+        return node != null;
+    }
+}
@@ -0,0 +1,185 @@
+package com.krab.lazy.examples_intellij;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.krab.lazy.LazyGui;
+import com.krab.lazy.LazyGuiSettings;
+import com.krab.lazy.stores.JsonSaveStore;
+import processing.core.PApplet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures how many slider reads per second the GUI handles when sketch worker threads read parameters
+ * in parallel while draw() keeps running and keeps reading them too.
+ * Each round runs for a fixed time with a different number of worker threads
+ * and prints the total throughput along with the per-thread throughput, which shows how much the threads contend.
+ * Every worker also uses its own pushFolder() and popFolder() pairs to check that prefixes from different threads never mix.
+ * Before the reading rounds the workers create sliders and color pickers in parallel, both in their own folders
+ * and at shared paths where they race each other, inside folders whose open windows come from a loaded save,
+ * so that creating controls, loading their shaders and opening their windows all happen on the worker threads.
+ */
+public class ConcurrentAccessBenchmark extends PApplet {
+    LazyGui gui;
+    final int slidersPerWorker = 100;
+    final int[] workerCounts = new int[]{1, 2, 4, 8};
+    final long roundMillis = 2000;
+    final int loadedFoldersPerWorker = 20;
+    final AtomicLong mixedUpPrefixCount = new AtomicLong();
+    ExecutorService benchmarkThread;
+
+    public static void main(String[] args) {
+        PApplet.main(java.lang.invoke.MethodHandles.lookup().lookupClass());
+    }
+
+    @Override
+    public void settings() {
+        size(800, 600, P2D);
+    }
+
+    @Override
+    public void setup() {
+        gui = new LazyGui(this, new LazyGuiSettings()
+                .setLoadLatestSaveOnStartup(false)
+                .setAutosaveOnExit(false)
+        );
+        JsonSaveStore.loadStateFromJsonString(createSaveWithOpenWorkerFolders());
+        benchmarkThread = Executors.newSingleThreadExecutor();
+        benchmarkThread.submit(this::runAllRounds);
+    }
+
+    @Override
+    public void draw() {
+        background(gui.colorPicker("background", color(36)).hex);
+        gui.pushFolder("draw thread");
+        for (int i = 0; i < slidersPerWorker; i++) {
+            gui.slider("slider " + i, i);
+        }
+        gui.popFolder();
+    }
+
+    private void runAllRounds() {
+        createControlsInParallel(workerCounts[workerCounts.length - 1]);
+        for (int workerCount : workerCounts) {
+            runRound(workerCount);
+        }
+        println("mixed up prefixes: " + mixedUpPrefixCount.get());
+        benchmarkThread.shutdown();
+    }
+
+    /**
+     * Builds a save where every worker folder under "loaded" has an open window,
+     * so the windows get created by the worker threads when they create these folders.
+     */
+    private String createSaveWithOpenWorkerFolders() {
+        JsonObject loadedFolder = createFolderState("loaded");
+        int maxWorkerCount = workerCounts[workerCounts.length - 1];
+        for (int w = 0; w < maxWorkerCount; w++) {
+            JsonObject workerFolder = createFolderState("loaded/worker " + w);
+            for (int f = 0; f < loadedFoldersPerWorker; f++) {
+                JsonObject folder = createFolderState("loaded/worker " + w + "/folder " + f);
+                JsonObject window = new JsonObject();
+                window.addProperty("closed", false);
+                window.addProperty("posX", 40 + f * 20);
+                window.addProperty("posY", 40 + w * 40);
+                window.addProperty("windowSizeX", 200);
+                folder.add("window", window);
+                workerFolder.getAsJsonArray("children").add(folder);
+            }
+            loadedFolder.getAsJsonArray("children").add(workerFolder);
+        }
+        JsonObject root = createFolderState("");
+        root.getAsJsonArray("children").add(loadedFolder);
+        return root.toString();
+    }
+
+    private JsonObject createFolderState(String path) {
+        JsonObject folder = new JsonObject();
+        folder.addProperty("path", path);
+        folder.addProperty("type", "FOLDER");
+        folder.add("children", new JsonArray());
+        return folder;
+    }
+
+    private void createControlsInParallel(int workerCount) {
+        ExecutorService workers = Executors.newFixedThreadPool(workerCount);
+        List<Future<?>> results = new ArrayList<>();
+        long startMillis = System.currentTimeMillis();
+        for (int w = 0; w < workerCount; w++) {
+            String folderName = "worker " + w;
+            results.add(workers.submit(() -> createControls(folderName)));
+        }
+        try {
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            println("parallel control creation failed: " + e);
+        }
+        workers.shutdown();
+        println(workerCount + " worker threads created their controls in " + (System.currentTimeMillis() - startMillis) + " ms");
+    }
+
+    private void createControls(String folderName) {
+        // plain hex colors, because the sketch's color() keeps its intermediate results in the shared renderer state
+        for (int f = 0; f < loadedFoldersPerWorker; f++) {
+            gui.pushFolder("loaded");
+            gui.pushFolder(folderName);
+            gui.pushFolder("folder " + f);
+            gui.slider("slider", f);
+            gui.colorPicker("color", 0xFF000000 | f * 10 << 16 | 0x64C8);
+            gui.popFolder();
+            gui.popFolder();
+            gui.popFolder();
+            gui.pushFolder("shared");
+            gui.slider("slider " + f, f);
+            gui.colorPicker("color " + f, 0xFFC80064 | f * 10 << 8);
+            gui.popFolder();
+        }
+    }
+
+    private void runRound(int workerCount) {
+        ExecutorService workers = Executors.newFixedThreadPool(workerCount);
+        List<Future<Long>> results = new ArrayList<>();
+        long deadline = System.currentTimeMillis() + roundMillis;
+        for (int w = 0; w < workerCount; w++) {
+            String folderName = "worker " + w;
+            results.add(workers.submit(() -> readSlidersUntil(folderName, deadline)));
+        }
+        long totalReads = 0;
+        try {
+            for (Future<Long> result : results) {
+                totalReads += result.get();
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            println("benchmark round failed: " + e);
+        }
+        workers.shutdown();
+        float readsPerSecond = totalReads / (roundMillis / 1000f);
+        println(workerCount + " worker threads: " + nf(readsPerSecond / 1e6f, 0, 2) + " million reads per second in total, "
+                + nf(readsPerSecond / workerCount / 1e6f, 0, 2) + " per thread");
+    }
+
+    private long readSlidersUntil(String folderName, long deadline) {
+        long reads = 0;
+        String[] sliderNames = new String[slidersPerWorker];
+        for (int i = 0; i < slidersPerWorker; i++) {
+            sliderNames[i] = "slider " + i;
+        }
+        while (System.currentTimeMillis() < deadline) {
+            gui.pushFolder(folderName);
+            if (!gui.getFolder().equals(folderName + "/")) {
+                mixedUpPrefixCount.incrementAndGet();
+            }
+            for (int i = 0; i < slidersPerWorker; i++) {
+                gui.slider(sliderNames[i], i);
+                reads++;
+            }
+            gui.popFolder();
+        }
+        return reads;
+    }
+}
@@ -1,6 +1,7 @@
 package com.krab.lazy.input;
 
 import com.krab.lazy.stores.GlobalReferences;
+import com.krab.lazy.stores.RefreshRateStore;
 import com.krab.lazy.stores.UndoRedoStore;
 import com.krab.lazy.utils.KeyCodes;
 import processing.event.KeyEvent;
@@ -51,6 +52,10 @@ public class UserInputPublisher {
         singleton.subscribers.add(0, subscriber);
     }
 
+    public static void unsubscribe(UserInputSubscriber subscriber) {
+        singleton.subscribers.remove(subscriber);
+    }
+
     public static void setFocus(UserInputSubscriber subscriber){
         singleton.subscribers.remove(subscriber);
         singleton.subscribers.add(0, subscriber);
@@ -62,6 +67,7 @@ public class UserInputPublisher {
      */
     @SuppressWarnings("unused")
     public void keyEvent(KeyEvent event){
+        RefreshRateStore.onInput();
         switch(event.getAction()){
             case KeyEvent.PRESS:
                 keyPressed(event);
@@ -108,6 +114,7 @@ public class UserInputPublisher {
      */
     @SuppressWarnings("unused")
     public void mouseEvent(MouseEvent event) {
+        RefreshRateStore.onInput();
         updatePreviousMousePositionBeforeHandling(event);
         switch(event.getAction()){
             case MouseEvent.MOVE:
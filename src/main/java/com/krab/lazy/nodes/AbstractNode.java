@@ -17,6 +17,9 @@ import com.krab.lazy.themes.ThemeStore;
 import processing.core.PGraphics;
 import processing.core.PVector;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import static processing.core.PApplet.*;
 
 /**
@@ -42,14 +45,83 @@ public abstract class AbstractNode {
     public final String name;
 
     public float masterInlineNodeHeightInCells = 1;
+    // interaction flags, only to be written through InteractionStore so that it can reset them without scanning the tree
     public boolean isInlineNodeDragged = false;
     public boolean isMouseOverNode = false;
+    public int lastQueriedFrame; // used by the opt-in EvictionStore to find nodes that are no longer used
 
     private boolean isInlineNodeVisible = true;
+    private volatile boolean isFrameValueTracked = false;
+    private Class<?> verifiedControlType = getClass();
+    private Set<Class<?>> knownConflictingTypes = null;
+
+    /**
+     * Checks whether this node can be used as the control type that a caller expects at its path.
+     * The last type that passed is remembered, so the usual repeated check is a single reference comparison.
+     * @param expectedType node class expected by the caller
+     * @return true when this node is an instance of the expected type
+     */
+    public boolean isOfExpectedType(Class<? extends AbstractNode> expectedType){
+        if(expectedType == verifiedControlType){
+            return true;
+        }
+        if(expectedType.isInstance(this)){
+            verifiedControlType = expectedType;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Remembers that a caller expected a different type at this node's path.
+     * @param expectedType node class expected by the caller
+     * @return true only the first time this conflicting type is reported for this node
+     */
+    public synchronized boolean rememberTypeConflict(Class<? extends AbstractNode> expectedType){
+        if(knownConflictingTypes == null){
+            knownConflictingTypes = new HashSet<>();
+        }
+        return knownConflictingTypes.add(expectedType);
+    }
+
+    /**
+     * Decides whether the value getters meant for the sketch should return the value published for the current frame
+     * instead of the live value, which is the case when FrameValueStore is enabled.
+     * The first such read publishes the value right away and makes sure the node gets published at the end of every frame.
+     * @return true when the frame value should be returned
+     */
+    protected boolean shouldReadFrameValue(){
+        if(!FrameValueStore.isEnabled()){
+            return false;
+        }
+        if(!isFrameValueTracked){
+            publishFrameValue();
+            isFrameValueTracked = true;
+            FrameValueStore.track(this);
+        }
+        return true;
+    }
+
+    /**
+     * Copies the live value to the value returned to the sketch during the next frame in frame consistent mode.
+     * Only nodes that return values to the sketch need to override this.
+     */
+    public void publishFrameValue(){
+
+    }
+
+    /**
+     * Stops publishing the frame value of this node, called when it gets removed from the tree.
+     */
+    public void stopTrackingFrameValue(){
+        if(isFrameValueTracked){
+            isFrameValueTracked = false;
+            FrameValueStore.untrack(this);
+        }
+    }
 
     public void setIsMouseOverThisNodeOnly(){
-        isMouseOverNode = true;
-        NodeTree.setAllOtherNodesMouseOverToFalse(this);
+        InteractionStore.setMouseOverThisNodeOnly(this);
     }
 
     protected AbstractNode(NodeType type, String path, FolderNode parentFolder) {
@@ -57,6 +129,7 @@ public abstract class AbstractNode {
         this.name = getNameFromPath(path);
         this.type = type;
         this.parent = parentFolder;
+        this.lastQueriedFrame = GlobalReferences.app == null ? 0 : GlobalReferences.app.frameCount;
     }
 
     @SuppressWarnings("unused")
@@ -82,7 +155,7 @@ public abstract class AbstractNode {
     /**
      * Main update function, only called when the parent window containing this node is open.
      * @see AbstractNode#drawNodeBackground(PGraphics)
-     * @param pg main PGraphics of the gui of the same size as the main PApplet canvas to draw on
+     * @param pg cached image of the parent window to draw on, translated so that the node's absolute position still applies
      */
     public final void updateDrawInlineNode(PGraphics pg) {
         // the node knows its absolute position but here the current matrix is already translated to it
@@ -102,7 +175,30 @@ public abstract class AbstractNode {
     }
 
     /**
-     * Secondary update function, called for all nodes every frame, regardless of their parent window's closed state.
+     * Per frame update of a visible node inside an open window, called right before its window decides whether to redraw.
+     * Windows keep their last drawn image and skip the draw functions when nothing changed,
+     * so anything that needs to happen every frame while the node is shown belongs here and not in the draw functions.
+     */
+    public void updateInlineNode(){
+
+    }
+
+    /**
+     * Hash of everything that decides how this node looks inside its window,
+     * compared every frame by the window to find out whether its cached image needs to be redrawn.
+     * Nodes displaying some value must mix it in, nodes that look different every frame can mix in the frame count.
+     * @return hash of the current look of this node
+     */
+    public int getInlineDisplayHash(){
+        int hash = Boolean.hashCode(isMouseOverNode);
+        hash = 31 * hash + Boolean.hashCode(isInlineNodeDragged);
+        hash = 31 * hash + Float.hashCode(masterInlineNodeHeightInCells);
+        return hash;
+    }
+
+    /**
+     * Secondary update function, called every frame regardless of the parent window's closed state,
+     * but only for nodes subscribed to the UpdateScheduler.
      */
     public void updateValuesRegardlessOfParentWindowOpenness(){
 
@@ -127,7 +223,7 @@ public abstract class AbstractNode {
 
     protected void drawRightText(PGraphics pg, String text, boolean fillBackground) {
         if(fillBackground){
-            float w = pg.textWidth(text) + FontStore.textMarginX * 2;
+            float w = FontStore.getTextWidth(pg, text) + FontStore.textMarginX * 2;
             drawRightBackdrop(pg, w);
         }
         pg.textAlign(RIGHT, CENTER);
@@ -172,8 +268,8 @@ public abstract class AbstractNode {
     }
 
     public void mousePressedOverNode(float x, float y) {
-        isInlineNodeDragged = true;
-        isMouseOverNode = true;
+        InteractionStore.startDragging(this);
+        InteractionStore.markMouseOver(this);
     }
 
     public void mouseReleasedAnywhere(LazyMouseEvent e) {
@@ -181,7 +277,7 @@ public abstract class AbstractNode {
             e.setConsumed(true);
             onActionEnded();
         }
-        isInlineNodeDragged = false;
+        InteractionStore.stopDragging(this);
     }
 
     public void onActionEnded(){
@@ -201,7 +297,7 @@ public abstract class AbstractNode {
     }
 
     public void mouseDragNodeContinue(LazyMouseEvent e) {
-        isMouseOverNode = true;
+        InteractionStore.markMouseOver(this);
     }
 
     public boolean isParentWindowVisible(){
@@ -240,12 +336,7 @@ public abstract class AbstractNode {
             }
             return GlobalReferences.app.getClass().getSimpleName(); // not using lowercase separated class name after all because it breaks what users expect to see
         }
-        String[] split = NodePaths.splitByUnescapesSlashesWithoutRemovingThem(path);
-        if (split.length == 0) {
-            return "";
-        }
-        String nameWithoutPrefixSlash = NodePaths.getNameWithoutPrefixSlash(split[split.length - 1]);
-        return NodePaths.getDisplayStringWithoutEscapes(nameWithoutPrefixSlash);
+        return NodePaths.getNameFromPath(path);
     }
 
     @SuppressWarnings("unused") // previously used for getting root window name, might still be useful some day
@@ -16,13 +16,32 @@ public class ButtonNode extends AbstractNode {
     }
 
     boolean valueBoolean = false;
-    private boolean mousePressedLastFrame = false;
+    private int frameClicked = -1;
+    private boolean releasedAfterPressOverButton = false;
+
+    /**
+     * Latches the click from the mouse events rather than sampling the mouse state in the window update,
+     * which only runs at the gui refresh rate and would miss a quick click between two refreshes.
+     */
+    @Override
+    public void mouseReleasedAnywhere(LazyMouseEvent e) {
+        // the window calls this before mouseReleasedOverNode(), while the drag started by the press is still known
+        releasedAfterPressOverButton = isInlineNodeDragged;
+        super.mouseReleasedAnywhere(e);
+    }
+
+    @Override
+    public void mouseReleasedOverNode(float x, float y) {
+        if (releasedAfterPressOverButton) {
+            valueBoolean = true;
+            frameClicked = app.frameCount;
+        }
+        releasedAfterPressOverButton = false;
+    }
 
     @Override
     protected void drawNodeBackground(PGraphics pg) {
-        boolean mousePressed = app.mousePressed;
-        valueBoolean = isMouseOverNode && mousePressedLastFrame && !mousePressed;
-        mousePressedLastFrame = mousePressed;
+
     }
 
     @Override
@@ -56,8 +75,13 @@ public class ButtonNode extends AbstractNode {
 
     }
 
+    /**
+     * Reports a click once, in the frame it arrived in or in the next frame,
+     * so that a click nobody reads right away does not fire much later.
+     * @return true if the button was clicked and the click has not been reported yet
+     */
     public boolean getBooleanValueAndSetItToFalse() {
-        boolean result = valueBoolean;
+        boolean result = valueBoolean && app.frameCount - frameClicked <= 1;
         valueBoolean = false;
         return result;
     }
@@ -9,9 +9,9 @@ import com.krab.lazy.input.LazyKeyEvent;
 import com.krab.lazy.utils.KeyCodes;
 import com.krab.lazy.utils.ClipboardUtils;
 import com.krab.lazy.stores.JsonSaveStore;
+import com.krab.lazy.stores.NormColorStore;
 import processing.core.PGraphics;
 
-import static com.krab.lazy.stores.NormColorStore.getColorStore;
 import static com.krab.lazy.stores.LayoutStore.cell;
 import static processing.core.PApplet.*;
 
@@ -20,6 +20,7 @@ public class ColorPickerFolderNode extends FolderNode {
     @Expose
     String hexString;
     private int hex;
+    private volatile PickerColor frameColor;
     @SuppressWarnings("FieldCanBeLocal")
     private final String HEX_NODE_NAME = "hex";
     private final String HUE_NODE_NAME = "hue";
@@ -40,12 +41,17 @@ public class ColorPickerFolderNode extends FolderNode {
         if (children.size() > 0) {
             return;
         }
-        children.add(new ColorPreviewNode(path + "/preview", this));
-        children.add(new ColorSliderNode.HueNode(path + "/" + HUE_NODE_NAME, this));
-        children.add(new ColorSliderNode.SaturationNode(path + "/" + SAT_NODE_NAME, this));
-        children.add(new ColorSliderNode.BrightnessNode(path + "/" + BR_NODE_NAME, this));
-        children.add(new ColorSliderNode.AlphaNode(path + "/" + ALPHA_NODE_NAME, this));
-        children.add(new ColorPickerHexNode(path + "/" + HEX_NODE_NAME, this));
+        addChild(new ColorPreviewNode(path + "/preview", this));
+        addChild(new ColorSliderNode.HueNode(path + "/" + HUE_NODE_NAME, this));
+        addChild(new ColorSliderNode.SaturationNode(path + "/" + SAT_NODE_NAME, this));
+        addChild(new ColorSliderNode.BrightnessNode(path + "/" + BR_NODE_NAME, this));
+        addChild(new ColorSliderNode.AlphaNode(path + "/" + ALPHA_NODE_NAME, this));
+        addChild(new ColorPickerHexNode(path + "/" + HEX_NODE_NAME, this));
+    }
+
+    @Override
+    public int getInlineDisplayHash() {
+        return 31 * super.getInlineDisplayHash() + hex;
     }
 
     @Override
@@ -70,22 +76,20 @@ public class ColorPickerFolderNode extends FolderNode {
 
     public void loadValuesFromHex(boolean setDefaults) {
         lazyInitNodes();
-        PGraphics colorProvider = getColorStore();
-        ((ColorSliderNode) findChildByName(HUE_NODE_NAME)).valueFloat = colorProvider.hue(hex);
-        ((ColorSliderNode) findChildByName(SAT_NODE_NAME)).valueFloat = colorProvider.saturation(hex);
-        ((ColorSliderNode) findChildByName(BR_NODE_NAME)).valueFloat = colorProvider.brightness(hex);
-        ((ColorSliderNode) findChildByName(ALPHA_NODE_NAME)).valueFloat = colorProvider.alpha(hex);
+        ((ColorSliderNode) findChildByName(HUE_NODE_NAME)).valueFloat = NormColorStore.hue(hex);
+        ((ColorSliderNode) findChildByName(SAT_NODE_NAME)).valueFloat = NormColorStore.sat(hex);
+        ((ColorSliderNode) findChildByName(BR_NODE_NAME)).valueFloat = NormColorStore.br(hex);
+        ((ColorSliderNode) findChildByName(ALPHA_NODE_NAME)).valueFloat = NormColorStore.alpha(hex);
         if (setDefaults) {
-            ((ColorSliderNode) findChildByName(HUE_NODE_NAME)).valueFloatDefault = colorProvider.hue(hex);
-            ((ColorSliderNode) findChildByName(SAT_NODE_NAME)).valueFloatDefault = colorProvider.saturation(hex);
-            ((ColorSliderNode) findChildByName(BR_NODE_NAME)).valueFloatDefault = colorProvider.brightness(hex);
-            ((ColorSliderNode) findChildByName(ALPHA_NODE_NAME)).valueFloatDefault = colorProvider.alpha(hex);
+            ((ColorSliderNode) findChildByName(HUE_NODE_NAME)).valueFloatDefault = NormColorStore.hue(hex);
+            ((ColorSliderNode) findChildByName(SAT_NODE_NAME)).valueFloatDefault = NormColorStore.sat(hex);
+            ((ColorSliderNode) findChildByName(BR_NODE_NAME)).valueFloatDefault = NormColorStore.br(hex);
+            ((ColorSliderNode) findChildByName(ALPHA_NODE_NAME)).valueFloatDefault = NormColorStore.alpha(hex);
         }
     }
 
     void loadValuesFromHSBA() {
-        PGraphics colorProvider = getColorStore();
-        setHex(colorProvider.color(
+        setHex(NormColorStore.color(
                 getValue(HUE_NODE_NAME),
                 getValue(SAT_NODE_NAME),
                 getValue(BR_NODE_NAME),
@@ -96,6 +100,30 @@ public class ColorPickerFolderNode extends FolderNode {
         return new PickerColor(hex, hue(), saturation(), brightness(), alpha());
     }
 
+    public int getHex() {
+        return hex;
+    }
+
+    /**
+     * Publishes the current color for the next frame, reusing the last published immutable color object when nothing changed.
+     */
+    @Override
+    public void publishFrameValue() {
+        PickerColor lastPublished = frameColor;
+        if (lastPublished == null || lastPublished.hex != hex || lastPublished.hue != hue() || lastPublished.saturation != saturation() ||
+                lastPublished.brightness != brightness() || lastPublished.alpha != alpha()) {
+            frameColor = getColor();
+        }
+    }
+
+    public PickerColor getFrameColor() {
+        return shouldReadFrameValue() ? frameColor : getColor();
+    }
+
+    public int getFrameHex() {
+        return shouldReadFrameValue() ? frameColor.hex : hex;
+    }
+
     private float getValue(String nodeName) {
         ColorSliderNode node = ((ColorSliderNode) findChildByName(nodeName));
         return node.valueFloat;
@@ -15,6 +15,11 @@ class ColorPickerHexNode extends AbstractNode {
         this.parentColorPickerFolder = parentFolder;
     }
 
+    @Override
+    public int getInlineDisplayHash() {
+        return 31 * super.getInlineDisplayHash() + parentColorPickerFolder.getHex();
+    }
+
     @Override
     protected void drawNodeBackground(PGraphics pg) {
 
@@ -3,8 +3,8 @@ package com.krab.lazy.nodes;
 
 import com.krab.lazy.input.LazyKeyEvent;
 import com.krab.lazy.stores.ShaderStore;
+import com.krab.lazy.stores.ShaderUniforms;
 import processing.core.PGraphics;
-import processing.opengl.PShader;
 
 import static processing.core.PConstants.CORNER;
 
@@ -20,6 +20,11 @@ class ColorPreviewNode extends AbstractNode {
         ShaderStore.getShader(checkerboardShaderPath);
     }
 
+    @Override
+    public int getInlineDisplayHash() {
+        return 31 * super.getInlineDisplayHash() + parentColorPickerFolder.getHex();
+    }
+
     @Override
     protected void drawNodeBackground(PGraphics pg) {
         drawCheckerboard(pg);
@@ -32,9 +37,10 @@ class ColorPreviewNode extends AbstractNode {
     }
 
     private void drawCheckerboard(PGraphics pg) {
-        PShader checkerboardShader = ShaderStore.getShader(checkerboardShaderPath);
-        checkerboardShader.set("quadPos", pos.x, pos.y);
-        pg.shader(checkerboardShader);
+        ShaderUniforms checkerboardUniforms = ShaderStore.getUniforms(checkerboardShaderPath);
+        // gl_FragCoord starts at the corner of the cached window image, not the corner of the screen
+        checkerboardUniforms.set("quadPos", pos.x - parentColorPickerFolder.window.getImageOriginX(), pos.y - parentColorPickerFolder.window.getImageOriginY());
+        pg.shader(checkerboardUniforms.getShader());
         pg.rectMode(CORNER);
         pg.fill(1);
         pg.noStroke();
@@ -7,10 +7,10 @@ import com.krab.lazy.input.LazyKeyEvent;
 import com.krab.lazy.input.LazyMouseEvent;
 import com.krab.lazy.stores.NormColorStore;
 import com.krab.lazy.stores.ShaderStore;
+import com.krab.lazy.stores.ShaderUniforms;
 import com.krab.lazy.themes.ThemeColorType;
 import com.krab.lazy.themes.ThemeStore;
 import processing.core.PGraphics;
-import processing.opengl.PShader;
 
 import static processing.core.PApplet.norm;
 
@@ -56,6 +56,16 @@ abstract class ColorSliderNode extends SliderNode {
         parentColorPickerFolder.loadValuesFromHSBA();
     }
 
+    @Override
+    public int getInlineDisplayHash() {
+        int hash = super.getInlineDisplayHash();
+        hash = 31 * hash + Float.hashCode(parentColorPickerFolder.hue());
+        hash = 31 * hash + Float.hashCode(parentColorPickerFolder.saturation());
+        hash = 31 * hash + Float.hashCode(parentColorPickerFolder.brightness());
+        hash = 31 * hash + Float.hashCode(parentColorPickerFolder.alpha());
+        return hash;
+    }
+
     @Override
     protected void drawNodeBackground(PGraphics pg) {
         super.drawNodeBackground(pg);
@@ -68,16 +78,17 @@ abstract class ColorSliderNode extends SliderNode {
 
     @Override
     protected void updateBackgroundShader(PGraphics pg) {
-        PShader bgShader = ShaderStore.getShader(colorShaderPath);
-        bgShader.set("quadPos", pos.x, pos.y);
-        bgShader.set("quadSize", size.x, size.y);
-        bgShader.set("hueValue", parentColorPickerFolder.hue());
-        bgShader.set("brightnessValue", parentColorPickerFolder.brightness());
-        bgShader.set("saturationValue", parentColorPickerFolder.saturation());
-        bgShader.set("alphaValue", parentColorPickerFolder.alpha());
-        bgShader.set("mode", shaderColorMode);
-        bgShader.set("precisionNormalized", norm(currentPrecisionIndex, 0, precisionRange.size()));
-        pg.shader(bgShader);
+        ShaderUniforms bgUniforms = ShaderStore.getUniforms(colorShaderPath);
+        // gl_FragCoord starts at the corner of the cached window image, not the corner of the screen
+        bgUniforms.set("quadPos", pos.x - parentColorPickerFolder.window.getImageOriginX(), pos.y - parentColorPickerFolder.window.getImageOriginY());
+        bgUniforms.set("quadSize", size.x, size.y);
+        bgUniforms.set("hueValue", parentColorPickerFolder.hue());
+        bgUniforms.set("brightnessValue", parentColorPickerFolder.brightness());
+        bgUniforms.set("saturationValue", parentColorPickerFolder.saturation());
+        bgUniforms.set("alphaValue", parentColorPickerFolder.alpha());
+        bgUniforms.set("mode", shaderColorMode);
+        bgUniforms.set("precisionNormalized", norm(currentPrecisionIndex, 0, precisionRange.size()));
+        pg.shader(bgUniforms.getShader());
     }
 
     @Override
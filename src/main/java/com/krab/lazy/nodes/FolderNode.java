@@ -8,6 +8,8 @@ import com.krab.lazy.input.LazyKeyEvent;
 import com.krab.lazy.stores.FontStore;
 import com.krab.lazy.utils.KeyCodes;
 import com.krab.lazy.stores.LayoutStore;
+import com.krab.lazy.stores.NodeTree;
+import com.krab.lazy.stores.InteractionStore;
 import com.krab.lazy.themes.ThemeColorType;
 import com.krab.lazy.themes.ThemeStore;
 import com.krab.lazy.utils.ClipboardUtils;
@@ -17,7 +19,10 @@ import com.krab.lazy.windows.WindowManager;
 import processing.core.PApplet;
 import processing.core.PGraphics;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import static com.krab.lazy.stores.LayoutStore.cell;
@@ -32,11 +37,17 @@ public class FolderNode extends AbstractNode {
 
     /**
      * CopyOnWriteArrayList is needed to avoid concurrent modification
-     * because the children get drawn by one thread and user input changes the list from another thread
+     * because the children get drawn by one thread and user input changes the list from another thread.
+     * Add and remove children only through addChild() and removeChildren() so the name index stays current.
      */
     @Expose
     public final List<AbstractNode> children = new CopyOnWriteArrayList<>();
 
+    private final Map<String, AbstractNode> childrenByName = new ConcurrentHashMap<>();
+    private volatile boolean childDerivedStateDirty = true;
+    private TextNode labelChild;
+    private ToggleNode enabledChild;
+
     @Expose
     public
     Window window;
@@ -53,6 +64,14 @@ public class FolderNode extends AbstractNode {
 
     }
 
+    @Override
+    public int getInlineDisplayHash() {
+        int hash = super.getInlineDisplayHash();
+        hash = 31 * hash + getInlineDisplayNameOverridableByContents(name).hashCode();
+        hash = 31 * hash + Boolean.hashCode(isFolderActiveJudgingByContents());
+        return hash;
+    }
+
     @Override
     protected void drawNodeForeground(PGraphics pg, String name) {
         String displayName = getInlineDisplayNameOverridableByContents(name);
@@ -81,36 +100,45 @@ public class FolderNode extends AbstractNode {
     }
 
     private String getInlineDisplayNameOverridableByContents(String name) {
-        String overridableName = name;
-        String desiredClassName = TextNode.class.getSimpleName();
-        AbstractNode renamingNode = findChildByName("");
-        if(renamingNode == null || !renamingNode.className.contains(desiredClassName)){
-            renamingNode = findChildByNameStartsWith("label");
-        }
-        if(renamingNode == null || !renamingNode.className.contains(desiredClassName)){
-            renamingNode = findChildByNameStartsWith("name");
-        }
-        if(renamingNode != null && renamingNode.className.contains(desiredClassName) && ((TextNode) renamingNode).stringValue.length() > 0){
-            overridableName = ((TextNode) renamingNode).stringValue;
+        updateChildDerivedStateIfNeeded();
+        TextNode renamingNode = labelChild;
+        if(renamingNode != null && renamingNode.stringValue.length() > 0){
+            return renamingNode.stringValue;
         }
-        return overridableName;
+        return name;
     }
 
     boolean isFolderActiveJudgingByContents(){
-        String desiredClassName = ToggleNode.class.getSimpleName();
-        AbstractNode enabledNode = findChildByName("");
-        if(enabledNode == null || !enabledNode.className.contains(desiredClassName)){
-            enabledNode = findChildByNameStartsWith("active");
+        updateChildDerivedStateIfNeeded();
+        ToggleNode enabledNode = enabledChild;
+        return enabledNode != null && enabledNode.valueBoolean;
+    }
+
+    /**
+     * Finds the children that override this folder's row label and active indicator.
+     * Only runs after the set of children changed, not every frame.
+     */
+    private void updateChildDerivedStateIfNeeded() {
+        if(!childDerivedStateDirty){
+            return;
         }
-        if(enabledNode == null || !enabledNode.className.contains(desiredClassName)){
-            enabledNode = findChildByNameStartsWith("enabled");
+        childDerivedStateDirty = false;
+        labelChild = (TextNode) findFirstChildOfExactType(TextNode.class, "label", "name");
+        enabledChild = (ToggleNode) findFirstChildOfExactType(ToggleNode.class, "active", "enabled", "visible");
+    }
+
+    private AbstractNode findFirstChildOfExactType(Class<? extends AbstractNode> desiredClass, String... nameStartsWithCandidates) {
+        AbstractNode candidate = findChildByName("");
+        for (String nameStartsWith : nameStartsWithCandidates) {
+            if(candidate != null && candidate.getClass() == desiredClass){
+                return candidate;
+            }
+            candidate = findChildByNameStartsWith(nameStartsWith);
         }
-        if(enabledNode == null || !enabledNode.className.contains(desiredClassName)){
-            enabledNode = findChildByNameStartsWith("visible");
+        if(candidate != null && candidate.getClass() == desiredClass){
+            return candidate;
         }
-        return enabledNode != null &&
-                enabledNode.className.contains(desiredClassName) &&
-                ((ToggleNode) enabledNode).valueBoolean;
+        return null;
     }
 
     @Override
@@ -118,24 +146,97 @@ public class FolderNode extends AbstractNode {
         super.mousePressedOverNode(x, y);
         WindowManager.setFocus(parent.window);
         WindowManager.uncoverOrCreateWindow(this);
-        this.isInlineNodeDragged = false;
+        InteractionStore.stopDragging(this);
+    }
+
+    /**
+     * Adds a child at the end of this folder and keeps the name index current.
+     * @param child node to add
+     */
+    public void addChild(AbstractNode child) {
+        children.add(child);
+        childrenByName.putIfAbsent(child.name, child);
+        childDerivedStateDirty = true;
+        NodeTree.onStructureChanged();
+    }
+
+    /**
+     * Adds many children at the end of this folder at once, copying the underlying list only once
+     * and publishing all of them to the readers of the children list in a single step.
+     * @param childrenToAdd nodes to add in order
+     */
+    public void addChildren(Collection<AbstractNode> childrenToAdd) {
+        if (childrenToAdd.isEmpty()) {
+            return;
+        }
+        children.addAll(childrenToAdd);
+        for (AbstractNode child : childrenToAdd) {
+            childrenByName.putIfAbsent(child.name, child);
+        }
+        childDerivedStateDirty = true;
+        NodeTree.onStructureChanged();
+    }
+
+    /**
+     * Adds a child at the specified index of this folder and keeps the name index current.
+     * @param index position to insert the child at
+     * @param child node to add
+     */
+    public void addChild(int index, AbstractNode child) {
+        children.add(index, child);
+        rebuildChildIndex();
+        NodeTree.onStructureChanged();
+    }
+
+    /**
+     * Removes the given children from this folder and keeps the name index current.
+     * @param childrenToRemove nodes to remove
+     */
+    public void removeChildren(Collection<AbstractNode> childrenToRemove) {
+        if (childrenToRemove.isEmpty()) {
+            return;
+        }
+        children.removeAll(childrenToRemove);
+        rebuildChildIndex();
+        NodeTree.onStructureChanged();
+    }
+
+    private void rebuildChildIndex() {
+        childrenByName.clear();
+        for (AbstractNode child : children) {
+            // the first child with a given name wins just like it would in a linear search
+            childrenByName.putIfAbsent(child.name, child);
+        }
+        childDerivedStateDirty = true;
     }
 
     protected AbstractNode findChildByName(String name) {
         if(name.startsWith("/")){
             name = name.substring(1);
         }
-        for (AbstractNode node : children) {
-            if (node.name.equals(name)) {
-                return node;
-            }
+        return childrenByName.get(name);
+    }
+
+    /**
+     * Finds a direct child by a single unescaped path segment, without building the child's full path.
+     * @param pathSegment name of the child as it appears in its path
+     * @return the child whose path is this folder's path followed by the segment or null if there is none
+     */
+    public AbstractNode findChildByPathSegment(String pathSegment) {
+        AbstractNode node = childrenByName.get(pathSegment);
+        if (node == null) {
+            return null;
+        }
+        int expectedPathLength = path.isEmpty() ? pathSegment.length() : path.length() + 1 + pathSegment.length();
+        if (node.path.length() == expectedPathLength && node.path.endsWith(pathSegment)) {
+            return node;
         }
         return null;
     }
 
     protected AbstractNode findChildByNameStartsWith(String nameStartsWith) {
-        if(name.startsWith("/")){
-            nameStartsWith = name.substring(1);
+        if(nameStartsWith.startsWith("/")){
+            nameStartsWith = nameStartsWith.substring(1);
         }
         for (AbstractNode node : children) {
             if (node.name.startsWith(nameStartsWith)) {
@@ -199,8 +300,7 @@ public class FolderNode extends AbstractNode {
     }
 
     private float findTextWidthRoundedUpToWholeCells(String textToMeasure) {
-        PGraphics textWidthProvider = FontStore.getMainFontUtilsProvider();
-        float leftTextWidth = textWidthProvider.textWidth(textToMeasure);
+        float leftTextWidth = FontStore.getMainFontTextWidth(textToMeasure);
         return ceil(leftTextWidth / cell) * cell;
     }
 }
@@ -10,7 +10,7 @@ class GradientColorStopNode extends ColorPickerFolderNode {
     GradientColorStopNode(String path, FolderNode parentFolder, int hex, float gradientPos) {
         super(path, parentFolder, hex);
         posSlider = new GradientColorStopPositionSlider(path + "/pos", this, gradientPos, 0,1,true);
-        this.children.add(posSlider);
+        addChild(posSlider);
     }
 
     @Override
@@ -3,17 +3,19 @@ package com.krab.lazy.nodes;
 import com.google.gson.JsonElement;
 import com.krab.lazy.PickerColor;
 import com.krab.lazy.stores.*;
+import com.krab.lazy.utils.GradientEvaluator;
 import com.krab.lazy.utils.ListBuilder;
 import processing.core.PGraphics;
 import processing.opengl.PShader;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 import static processing.core.PApplet.*;
 
 public class GradientPickerFolderNode extends FolderNode {
-    int colorCount;
+    volatile int colorCount;
     private PGraphics out;
     private final ToggleNode wrapAtEdgesToggle;
     private final ToggleNode directionToggle;
@@ -22,9 +24,48 @@ public class GradientPickerFolderNode extends FolderNode {
     private final List<String> blendTypeOptions = new ListBuilder<String>()
             .add("mix").add("rgb").add("hsv").build();
     private final int maxColorCountDefault = 8;
+    private static final int lookUpTableResolution = 1024;
     private int maxColorCount = maxColorCountDefault;
-    private int frameLastUpdatedOutputGraphics = -1;
-    private int[] LUT;
+    private volatile int frameLastUpdatedGradient = -1;
+    private final Object gradientUpdateLock = new Object();
+    private final GradientColorStopNode[] colorStops;
+    private volatile GradientSnapshot gradient;
+    private GradientSnapshot outRenderedGradient;
+    private static final int previewResolution = 256;
+    private static final int framesToKeepUnusedPreview = 60;
+    private PGraphics previewGraphics;
+    private GradientSnapshot previewRenderedGradient;
+    private int frameLastUsedPreviewGraphics = -1;
+
+    /**
+     * Everything evaluated from one state of the stops, built completely before it gets published,
+     * so that sketch worker threads reading colors in parallel never see a half updated gradient.
+     * Never changes after it is built.
+     */
+    private static final class GradientSnapshot {
+        final int fingerprint;
+        final float[] colorValues;
+        final float[] colorPositions;
+        final int directionType;
+        final int blendType;
+        final boolean wrapAtEdges;
+        final GradientEvaluator evaluator = new GradientEvaluator();
+        final int[] lookUpTable = new int[lookUpTableResolution];
+
+        GradientSnapshot(int fingerprint, float[] colorValues, float[] colorPositions,
+                         int directionType, int blendType, boolean wrapAtEdges) {
+            this.fingerprint = fingerprint;
+            this.colorValues = colorValues;
+            this.colorPositions = colorPositions;
+            this.directionType = directionType;
+            this.blendType = blendType;
+            this.wrapAtEdges = wrapAtEdges;
+            evaluator.setStops(colorValues, colorPositions, colorPositions.length);
+            evaluator.setBlendType(blendType);
+            evaluator.setWrapAtEdges(wrapAtEdges);
+            evaluator.fillLookUpTable(lookUpTable);
+        }
+    }
 
     public GradientPickerFolderNode(String path, FolderNode parent, int[] defaultColors) {
         super(path, parent);
@@ -38,11 +79,12 @@ public class GradientPickerFolderNode extends FolderNode {
         wrapAtEdgesToggle = new ToggleNode(path + "/edge wrap", this, false);
         blendTypePicker = new RadioFolderNode(path + "/blend", this, blendTypeOptions.toArray(new String[0]), blendTypeOptions.get(0));
         colorCountSlider = new SliderIntNode(path + "/stops", this, colorCount, minColorCount, maxColorCountDefault, true);
-        children.add(new GradientPreviewNode(path + "/preview", this));
-        children.add(directionToggle);
-        children.add(wrapAtEdgesToggle);
-        children.add(blendTypePicker);
-        children.add(colorCountSlider);
+        addChild(new GradientPreviewNode(path + "/preview", this));
+        addChild(directionToggle);
+        addChild(wrapAtEdgesToggle);
+        addChild(blendTypePicker);
+        addChild(colorCountSlider);
+        colorStops = new GradientColorStopNode[maxColorCount];
         for (int i = 0; i < maxColorCount; i++) {
             float br = 1 - map(i % colorCount, 0, colorCount, 0.2f, 0.9f);
             float colorPosition = 0.1f + 0.8f * norm(i%colorCount, 0, colorCount - 1);
@@ -53,14 +95,56 @@ public class GradientPickerFolderNode extends FolderNode {
             } else {
                 colorHex = NormColorStore.color(0, 0, br, 1);
             }
-            children.add(createGradientColorPicker(path + "/" + getColorNameByIndex(i), colorHex, colorPosition));
+            colorStops[i] = createGradientColorPicker(path + "/" + getColorNameByIndex(i), colorHex, colorPosition);
+            addChild(colorStops[i]);
         }
         JsonSaveStore.overwriteWithLoadedStateIfAny(this);
+        UpdateScheduler.subscribe(this);
     }
 
     @Override
     public void updateValuesRegardlessOfParentWindowOpenness() {
-        lazyUpdateOutGraphics();
+        lazyUpdateGradient();
+        // runs on the draw thread, unlike the value reads that can come from sketch worker threads
+        if (previewGraphics != null && GlobalReferences.app.frameCount - frameLastUsedPreviewGraphics > framesToKeepUnusedPreview) {
+            SurfaceStore.release(previewGraphics);
+            previewGraphics = null;
+        }
+    }
+
+    @Override
+    public void updateInlineNode() {
+        super.updateInlineNode();
+        getPreviewGraphics(); // the preview icon needs the image, which must not be rendered while drawing the window
+    }
+
+    @Override
+    public int getInlineDisplayHash() {
+        return 31 * super.getInlineDisplayHash() + getGradientDisplayHash();
+    }
+
+    /**
+     * Hash of everything that decides how the rendered gradient looks, used by the rows that display it.
+     * @return hash of the current gradient
+     */
+    int getGradientDisplayHash() {
+        return lazyUpdateGradient().fingerprint;
+    }
+
+    /**
+     * Fingerprint of the stop colors, stop positions, stop count, blend type, direction and edge wrap,
+     * cheap enough to compute every frame and compare to the last one to skip everything when the gradient did not change.
+     */
+    private int computeGradientFingerprint() {
+        int hash = colorCount;
+        hash = 31 * hash + Boolean.hashCode(directionToggle.valueBoolean);
+        hash = 31 * hash + Boolean.hashCode(wrapAtEdgesToggle.valueBoolean);
+        hash = 31 * hash + Objects.hashCode(blendTypePicker.valueString);
+        for (int i = 0; i < colorCount && i < colorStops.length; i++) {
+            hash = 31 * hash + colorStops[i].getHex();
+            hash = 31 * hash + Float.hashCode(colorStops[i].getGradientPos());
+        }
+        return hash;
     }
 
     @Override
@@ -73,73 +157,137 @@ public class GradientPickerFolderNode extends FolderNode {
         pg.translate(size.x - LayoutStore.cell * 0.5f, LayoutStore.cell * 0.5f);
         pg.imageMode(CENTER);
         float previewRectSize = LayoutStore.cell * 0.6f;
-        pg.image(out, 0, 0, previewRectSize, previewRectSize);
+        pg.image(getPreviewGraphics(), 0, 0, previewRectSize, previewRectSize);
         strokeForegroundBasedOnMouseOver(pg);
         pg.rectMode(CENTER);
         pg.noFill();
         pg.rect(0, 0, previewRectSize, previewRectSize);
     }
 
-    private void lazyUpdateOutGraphics() {
-        if (frameLastUpdatedOutputGraphics == GlobalReferences.app.frameCount) {
-            return; // weird bugs when updated more than once per frame
+    /**
+     * Checks the stops at most once per frame and publishes a new snapshot when they changed.
+     * Can be called from any thread, the first caller in a frame does the check while holding the update lock
+     * and everyone else reads the published snapshot without locking.
+     * @return the gradient snapshot for the current state of the stops
+     */
+    private GradientSnapshot lazyUpdateGradient() {
+        int frameCount = GlobalReferences.app.frameCount;
+        GradientSnapshot current = gradient;
+        if (current != null && frameLastUpdatedGradient == frameCount) {
+            return current; // weird bugs when updated more than once per frame
         }
-        frameLastUpdatedOutputGraphics = GlobalReferences.app.frameCount;
-        if (out == null || out.width != GlobalReferences.app.width || out.height != GlobalReferences.app.height) {
-            out = GlobalReferences.app.createGraphics(GlobalReferences.app.width, GlobalReferences.app.height, P2D);
-            out.smooth(4);
+        synchronized (gradientUpdateLock) {
+            if (gradient != null && frameLastUpdatedGradient == frameCount) {
+                return gradient;
+            }
+            colorCount = colorCountSlider.getIntValue();
+            maxColorCount = max(colorCount, maxColorCount);
+            int fingerprint = computeGradientFingerprint();
+            if (gradient == null || fingerprint != gradient.fingerprint) {
+                updateColorStopVisibility();
+                List<GradientColorStopNode> colorStopsInPositionOrder = getAllColorStopsInPositionOrder();
+                gradient = new GradientSnapshot(fingerprint,
+                        getColorValuesAsFloatArray(colorStopsInPositionOrder),
+                        getColorPositionsAsFloatArray(colorStopsInPositionOrder),
+                        getDirectionIndex(), getBlendTypeIndex(), wrapAtEdgesToggle.valueBoolean);
+            }
+            frameLastUpdatedGradient = frameCount;
+            return gradient;
         }
-        colorCount = colorCountSlider.getIntValue();
-        maxColorCount = max(colorCount, maxColorCount);
-        updateColorStopVisibility();
+    }
+
+    private void lazyUpdateOutGraphics(int width, int height) {
+        GradientSnapshot current = lazyUpdateGradient();
+        if (out == null || out.width != width || out.height != height) {
+            SurfaceStore.release(out);
+            out = SurfaceStore.obtain(width, height, P2D, 4);
+            outRenderedGradient = null;
+        }
+        if (outRenderedGradient != current) {
+            outRenderedGradient = current;
+            renderGradient(out, current);
+        }
+    }
 
+    /**
+     * Gets the small image shown by the gui rows, which is kept separate from the caller's image
+     * so that showing a gradient in the gui never needs a full resolution surface.
+     * It gets released back to the surface pool when the gui has not shown it for a while.
+     * @return gradient image for the gui, up to date with the current stops
+     */
+    PGraphics getPreviewGraphics() {
+        GradientSnapshot current = lazyUpdateGradient();
+        frameLastUsedPreviewGraphics = GlobalReferences.app.frameCount;
+        if (previewGraphics == null) {
+            previewGraphics = SurfaceStore.obtain(previewResolution, previewResolution, P2D, 4);
+            previewRenderedGradient = null;
+        }
+        if (previewRenderedGradient != current) {
+            previewRenderedGradient = current;
+            renderGradient(previewGraphics, current);
+        }
+        return previewGraphics;
+    }
+
+    private void renderGradient(PGraphics target, GradientSnapshot gradient) {
         String gradientShaderPath = "gradient.glsl";
 //        String shaderPathLong = "shaders/gradient.glsl";
 //        PShader shader = ShaderReloader.getShader(shaderPathLong);
         PShader shader = ShaderStore.getShader(gradientShaderPath);
-        shader.set("colorCount", colorCount);
-        List<GradientColorStopNode> colorStopsInPositionOrder = getAllColorStopsInPositionOrder();
-        float[] colorValues = getColorValuesAsFloatArray(colorStopsInPositionOrder);
-        float[] colorPositions = getColorPositionsAsFloatArray(colorStopsInPositionOrder);
-        shader.set("colorValues", colorValues, 4);
-        shader.set("colorPositions", colorPositions, 1);
-        shader.set("directionType", getDirectionIndex());
-        shader.set("blendType", getBlendTypeIndex());
-        shader.set("wrapAtEdges", wrapAtEdgesToggle.valueBoolean);
-        out.beginDraw();
-        out.clear();
-        out.filter(shader);
-//        ShaderReloader.filter(shaderPathLong, out);
-        out.endDraw();
-        updateLookUpTable(out);
-    }
-
-    private void updateLookUpTable(PGraphics out) {
-        out.loadPixels();
-        boolean isVertical = isGradientDirectionVertical();
-        if (isVertical) {
-            LUT = new int[out.height];
-            for (int i = 0; i < out.height; i++) {
-                LUT[i] = out.pixels[out.width / 2 + i * out.width];
-            }
-        } else {
-            LUT = new int[out.width];
-            System.arraycopy(out.pixels, out.width * out.height / 2, LUT, 0, out.width);
-        }
+        shader.set("colorCount", gradient.colorPositions.length);
+        shader.set("colorValues", gradient.colorValues, 4);
+        shader.set("colorPositions", gradient.colorPositions, 1);
+        shader.set("directionType", gradient.directionType);
+        shader.set("blendType", gradient.blendType);
+        shader.set("wrapAtEdges", gradient.wrapAtEdges);
+        target.beginDraw();
+        target.clear();
+        target.filter(shader);
+//        ShaderReloader.filter(shaderPathLong, target);
+        target.endDraw();
     }
 
     public PickerColor getGradientColorAt(float position) {
-        lazyUpdateOutGraphics();
+        int[] LUT = lazyUpdateGradient().lookUpTable;
         int lookupIndex = constrain(floor(map(position, 0, 1, 0, LUT.length - 1)), 0, LUT.length - 1);
         return new PickerColor(LUT[lookupIndex]);
     }
 
+    /**
+     * Samples many gradient colors at once from the lookup table without allocating anything per sample.
+     * @param positions positions along the gradient in the [0,1] range
+     * @param outArgb array to write the colors into, at least as long as the positions
+     * @param interpolate true to blend the two closest lookup table entries, false to take the closest one
+     */
+    public void getGradientColors(float[] positions, int[] outArgb, boolean interpolate) {
+        int[] LUT = lazyUpdateGradient().lookUpTable;
+        int lastIndex = LUT.length - 1;
+        for (int i = 0; i < positions.length; i++) {
+            if (interpolate) {
+                float lookupPos = constrain(positions[i] * LUT.length - 0.5f, 0, lastIndex);
+                int lookupIndex = floor(lookupPos);
+                int nextIndex = min(lookupIndex + 1, lastIndex);
+                outArgb[i] = lerpColor(LUT[lookupIndex], LUT[nextIndex], lookupPos - lookupIndex, RGB);
+            } else {
+                outArgb[i] = LUT[constrain(floor(map(positions[i], 0, 1, 0, lastIndex)), 0, lastIndex)];
+            }
+        }
+    }
+
+    /**
+     * Evaluates the gradient at the centers of evenly sized cells along it, at any resolution.
+     * @param outArgb array to fill with colors, its length is the resolution
+     */
+    public void getGradientLookUpTable(int[] outArgb) {
+        lazyUpdateGradient().evaluator.fillLookUpTable(outArgb);
+    }
+
     private void updateColorStopVisibility() {
-        for (int i = 0; i <= maxColorCount; i++) {
+        for (int i = 0; i < colorStops.length; i++) {
             if (i < colorCount) {
-                NodeTree.showAtFullPath(path + "/" + getColorNameByIndex(i));
+                colorStops[i].showInlineNode();
             } else {
-                NodeTree.hideAtFullPath(path + "/" + getColorNameByIndex(i));
+                colorStops[i].hideInlineNode();
             }
         }
     }
@@ -185,25 +333,42 @@ public class GradientPickerFolderNode extends FolderNode {
     }
 
     public PGraphics getOutputGraphics() {
-        lazyUpdateOutGraphics();
+        return getOutputGraphics(GlobalReferences.app.width, GlobalReferences.app.height);
+    }
+
+    /**
+     * Gets the gradient rendered at the requested resolution, reusing the previous image when the size and the stops match.
+     * @param width image width in pixels
+     * @param height image height in pixels
+     * @return gradient image after endDraw()
+     */
+    public PGraphics getOutputGraphics(int width, int height) {
+        lazyUpdateOutGraphics(max(1, width), max(1, height));
         return out;
     }
 
+    /**
+     * Gives the image returned by getOutputGraphics() back to the shared surface pool.
+     * The next call to getOutputGraphics() renders a new one.
+     */
+    public void releaseOutputGraphics() {
+        SurfaceStore.release(out);
+        out = null;
+        outRenderedGradient = null;
+    }
+
     List<GradientColorStopNode> getAllColorStopsInPositionOrder() {
-        List<GradientColorStopNode> colorStops = new ArrayList<>();
-        for (int i = 0; i < colorCount; i++) {
-            GradientColorStopNode colorStopByIndex = findColorStopByIndex(i);
-            if(colorStopByIndex != null){
-                colorStops.add(colorStopByIndex);
-            }
+        List<GradientColorStopNode> stopsInPositionOrder = new ArrayList<>();
+        for (int i = 0; i < colorCount && i < colorStops.length; i++) {
+            stopsInPositionOrder.add(colorStops[i]);
         }
         // sort them by position
-        colorStops.sort((o1, o2) -> Float.compare(o1.getGradientPos(), o2.getGradientPos()));
-        return colorStops;
+        stopsInPositionOrder.sort((o1, o2) -> Float.compare(o1.getGradientPos(), o2.getGradientPos()));
+        return stopsInPositionOrder;
     }
 
     GradientColorStopNode findColorStopByIndex(int i) {
-        return (GradientColorStopNode) findChildByName(getColorNameByIndex(i));
+        return i < colorStops.length ? colorStops[i] : null;
     }
 
     public void overwriteState(JsonElement loadedNode) {
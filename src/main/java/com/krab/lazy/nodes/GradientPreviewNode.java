@@ -3,6 +3,8 @@ package com.krab.lazy.nodes;
 import com.krab.lazy.input.LazyMouseEvent;
 import com.krab.lazy.stores.FontStore;
 import com.krab.lazy.stores.LayoutStore;
+import com.krab.lazy.stores.InteractionStore;
+import com.krab.lazy.stores.UpdateScheduler;
 import com.krab.lazy.themes.ThemeColorType;
 import com.krab.lazy.themes.ThemeStore;
 import processing.core.PGraphics;
@@ -22,11 +24,17 @@ class GradientPreviewNode extends AbstractNode {
         super(NodeType.TRANSIENT, path, parent);
         this.parent = parent;
         masterInlineNodeHeightInCells = 6;
+        UpdateScheduler.subscribe(this);
+    }
+
+    @Override
+    public void updateInlineNode() {
+        parent.getPreviewGraphics();
     }
 
     @Override
     protected void drawNodeBackground(PGraphics pg) {
-        pg.image(parent.getOutputGraphics(), 1, 1, size.x - 1, size.y - 1);
+        pg.image(parent.getPreviewGraphics(), 1, 1, size.x - 1, size.y - 1);
     }
 
     @Override
@@ -39,7 +47,7 @@ class GradientPreviewNode extends AbstractNode {
             colorRowToHighlight = hoveredColorIndex;
         }
         if(colorRowToHighlight != NULL){
-            parent.findColorStopByIndex(colorRowToHighlight).isMouseOverNode = true;
+            InteractionStore.markMouseOver(parent.findColorStopByIndex(colorRowToHighlight));
         }
         if(isParentWindowVisible() && isMouseOverNode && draggedColorIndex == NULL){
             hoveredColorIndex = findClosestStopOnScreen(app.mouseX, app.mouseY);
@@ -49,13 +57,24 @@ class GradientPreviewNode extends AbstractNode {
             // weird hacks here and in the PlotFolder - need a better system
             if(hoveredColorIndex != NULL && draggedColorIndex == NULL){
                 for (int i = 0; i < parent.colorCount; i++) {
-                    parent.findColorStopByIndex(i).isMouseOverNode = false;
+                    InteractionStore.unmarkMouseOver(parent.findColorStopByIndex(i));
                 }
             }
             hoveredColorIndex = NULL;
         }
     }
 
+    @Override
+    public int getInlineDisplayHash() {
+        int hash = super.getInlineDisplayHash();
+        hash = 31 * hash + parent.getGradientDisplayHash();
+        for (int i = 0; i < parent.colorCount; i++) {
+            GradientColorStopNode colorStop = parent.findColorStopByIndex(i);
+            hash = 31 * hash + Boolean.hashCode(shouldHighlightColorStop(colorStop, i, hoveredColorIndex));
+        }
+        return hash;
+    }
+
     @Override
     protected void drawNodeForeground(PGraphics pg, String name) {
         drawColorStops(pg);
@@ -1,6 +1,7 @@
 package com.krab.lazy.nodes;
 
 import com.krab.lazy.input.LazyKeyEvent;
+import com.krab.lazy.stores.InteractionStore;
 import com.krab.lazy.input.LazyMouseEvent;
 import com.krab.lazy.utils.KeyCodes;
 import com.krab.lazy.themes.ThemeColorType;
@@ -24,15 +25,30 @@ class PlotDisplayNode extends AbstractNode {
     }
 
     @Override
-    protected void drawNodeBackground(PGraphics pg) {
+    public void updateInlineNode() {
         masterInlineNodeHeightInCells = floor(size.x / cell);
-        drawPlotGrid(pg);
         if(isMouseOverNode){
-            sliderX.isMouseOverNode = true;
-            sliderY.isMouseOverNode = true;
+            InteractionStore.markMouseOver(sliderX);
+            InteractionStore.markMouseOver(sliderY);
         }
     }
 
+    @Override
+    public int getInlineDisplayHash() {
+        int hash = super.getInlineDisplayHash();
+        hash = 31 * hash + Float.hashCode(sliderX.valueFloat);
+        hash = 31 * hash + Float.hashCode(sliderY.valueFloat);
+        hash = 31 * hash + Float.hashCode(sliderX.valueFloatPrecision);
+        hash = 31 * hash + Float.hashCode(sliderY.valueFloatPrecision);
+        hash = 31 * hash + Boolean.hashCode(shouldHighlightGrid());
+        return hash;
+    }
+
+    @Override
+    protected void drawNodeBackground(PGraphics pg) {
+        drawPlotGrid(pg);
+    }
+
     @Override
     protected void drawNodeForeground(PGraphics pg, String name) {
 
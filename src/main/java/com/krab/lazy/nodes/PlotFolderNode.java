@@ -2,6 +2,7 @@ package com.krab.lazy.nodes;
 
 import com.krab.lazy.input.LazyKeyEvent;
 import com.krab.lazy.utils.KeyCodes;
+import com.krab.lazy.stores.UpdateScheduler;
 import processing.core.PGraphics;
 import processing.core.PVector;
 
@@ -27,13 +28,14 @@ public class PlotFolderNode extends FolderNode {
         }
         sliderX = new SliderNode(path + "/" + SLIDER_X_NAME, this, defaultPos.x, -Float.MAX_VALUE, Float.MAX_VALUE, false);
         sliderY = new SliderNode(path + "/" + SLIDER_Y_NAME, this, defaultPos.y, -Float.MAX_VALUE, Float.MAX_VALUE, false);
-        children.add(new PlotDisplayNode(path + "/" + PLOT_DISPLAY_NAME, this, sliderX, sliderY));
-        children.add(sliderX);
-        children.add(sliderY);
+        addChild(new PlotDisplayNode(path + "/" + PLOT_DISPLAY_NAME, this, sliderX, sliderY));
+        addChild(sliderX);
+        addChild(sliderY);
         if (useZ) {
             sliderZ = new SliderNode(path + "/" + SLIDER_Z_NAME, this, defaultPos.z, -Float.MAX_VALUE, Float.MAX_VALUE, false);
-            children.add(sliderZ);
+            addChild(sliderZ);
         }
+        UpdateScheduler.subscribe(this);
     }
 
     @Override
@@ -44,6 +46,17 @@ public class PlotFolderNode extends FolderNode {
         drawRightText(pg, vectorToDisplay, true);
     }
 
+    @Override
+    public int getInlineDisplayHash() {
+        int hash = super.getInlineDisplayHash();
+        hash = 31 * hash + sliderX.getInlineDisplayHash();
+        hash = 31 * hash + sliderY.getInlineDisplayHash();
+        if (sliderZ != null) {
+            hash = 31 * hash + sliderZ.getInlineDisplayHash();
+        }
+        return hash;
+    }
+
     @Override
     public void updateValuesRegardlessOfParentWindowOpenness() {
         syncPrecision();
@@ -80,6 +93,34 @@ public class PlotFolderNode extends FolderNode {
         );
     }
 
+    public PVector getFrameVectorValue() {
+        return new PVector(getFrameX(), getFrameY(), getFrameZ());
+    }
+
+    public float getFrameX() {
+        return sliderX.getFrameValueFloat();
+    }
+
+    public float getFrameY() {
+        return sliderY.getFrameValueFloat();
+    }
+
+    public float getFrameZ() {
+        return sliderZ == null ? 0 : sliderZ.getFrameValueFloat();
+    }
+
+    public float getX() {
+        return sliderX.valueFloat;
+    }
+
+    public float getY() {
+        return sliderY.valueFloat;
+    }
+
+    public float getZ() {
+        return sliderZ == null ? 0 : sliderZ.valueFloat;
+    }
+
     public void setVectorValue(float x, float y, float z) {
         sliderX.valueFloat = x;
         sliderY.valueFloat = y;
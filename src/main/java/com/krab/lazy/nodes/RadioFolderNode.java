@@ -3,6 +3,7 @@ package com.krab.lazy.nodes;
 import com.google.gson.JsonElement;
 import com.google.gson.annotations.Expose;
 import com.krab.lazy.stores.JsonSaveStore;
+import com.krab.lazy.stores.UpdateScheduler;
 import processing.core.PGraphics;
 
 import java.util.*;
@@ -15,6 +16,7 @@ public class RadioFolderNode extends FolderNode {
     public
     String valueString;
     final Map<String, Boolean> oldValues = new HashMap<>();
+    private volatile String frameValueString;
     private final String[] options;
 
     public RadioFolderNode(String path, FolderNode parent, String[] options, String defaultOption) {
@@ -34,7 +36,7 @@ public class RadioFolderNode extends FolderNode {
                 valueBoolean = option.equals(defaultOption);
             }
             String childPath = path + "/" + option;
-            children.add(new RadioItemNode(childPath, this, valueBoolean, option));
+            addChild(new RadioItemNode(childPath, this, valueBoolean, option));
             oldValues.put(childPath, valueBoolean);
         }
         if(defaultOption != null){
@@ -43,6 +45,7 @@ public class RadioFolderNode extends FolderNode {
         JsonSaveStore.overwriteWithLoadedStateIfAny(this);
         checkForChildValueChange(); // loading from json may have changed the child booleans, so we need to reflect this in valueString and oldValues
         rememberCurrentValues();
+        UpdateScheduler.subscribe(this);
     }
 
     public List<String> getOptions(){
@@ -58,6 +61,11 @@ public class RadioFolderNode extends FolderNode {
         return false;
     }
 
+    @Override
+    public int getInlineDisplayHash() {
+        return 31 * super.getInlineDisplayHash() + Objects.hashCode(valueString);
+    }
+
     @Override
     protected void drawNodeForeground(PGraphics pg, String name) {
      // don't draw folder icon - do not call super.drawNodeForeground(pg, name)
@@ -124,6 +132,15 @@ public class RadioFolderNode extends FolderNode {
         }
     }
 
+    @Override
+    public void publishFrameValue() {
+        frameValueString = valueString;
+    }
+
+    public String getFrameValueString() {
+        return shouldReadFrameValue() ? frameValueString : valueString;
+    }
+
     @Override
     public String getValueAsString() {
         return valueString;
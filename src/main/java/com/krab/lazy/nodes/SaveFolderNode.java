@@ -2,6 +2,7 @@ package com.krab.lazy.nodes;
 
 import com.krab.lazy.stores.JsonSaveStore;
 import com.krab.lazy.stores.NodeTree;
+import com.krab.lazy.stores.UpdateScheduler;
 import processing.core.PGraphics;
 
 import java.awt.*;
@@ -38,17 +39,18 @@ public class SaveFolderNode extends FolderNode {
         readAutosaveExplanationToggle = new ToggleNode(path + autosaveFolderPath + "/read more", autosaveFolder, false);
         readmeTextNodePath = path + autosaveFolderPath + "/readme";
         autosaveReadmeTextNode = new TextNode(readmeTextNodePath, autosaveFolder, autosaveReadmeContents);
-        autosaveFolder.children.add(autosaveEnabledToggle);
-        autosaveFolder.children.add(autosaveGuardToggle);
-        autosaveFolder.children.add(autosaveMillisSlider);
-        autosaveFolder.children.add(readAutosaveExplanationToggle);
-        autosaveFolder.children.add(autosaveReadmeTextNode);
-        children.add(buttonCreateNewSave);
-        children.add(buttonOpenSaveFolder);
-        children.add(autosaveFolder);
+        autosaveFolder.addChild(autosaveEnabledToggle);
+        autosaveFolder.addChild(autosaveGuardToggle);
+        autosaveFolder.addChild(autosaveMillisSlider);
+        autosaveFolder.addChild(readAutosaveExplanationToggle);
+        autosaveFolder.addChild(autosaveReadmeTextNode);
+        addChild(buttonCreateNewSave);
+        addChild(buttonOpenSaveFolder);
+        addChild(autosaveFolder);
         childrenThatAreNotSaveFiles.addAll(children);
         updateReadmeVisibility();
         updateSaveList();
+        UpdateScheduler.subscribe(this);
     }
 
     @Override
@@ -93,7 +95,9 @@ public class SaveFolderNode extends FolderNode {
             String saveDisplayName = getSaveDisplayName(filename);
             String childNodePath = path + "/" + saveDisplayName;
             if(findChildByName(saveDisplayName) == null){
-                children.add(childrenThatAreNotSaveFiles.size(), new SaveItemNode(childNodePath, this, filename));
+                SaveItemNode saveItem = new SaveItemNode(childNodePath, this, filename);
+                addChild(childrenThatAreNotSaveFiles.size(), saveItem);
+                NodeTree.indexNodeAndChildren(saveItem);
             }
         }
     }
@@ -115,7 +119,10 @@ public class SaveFolderNode extends FolderNode {
                 childrenToRemove.add(child);
             }
         }
-        children.removeAll(childrenToRemove);
+        removeChildren(childrenToRemove);
+        for(AbstractNode removedChild : childrenToRemove){
+            NodeTree.unindexNodeAndChildren(removedChild);
+        }
         childrenToRemove.clear();
     }
 
@@ -13,6 +13,10 @@ public class SliderIntNode extends SliderNode {
         return PApplet.floor(valueFloat);
     }
 
+    public int getFrameIntValue(){
+        return PApplet.floor(getFrameValueFloat());
+    }
+
     @Override
     public String getValueToDisplay() {
         // float floor as a string
@@ -10,14 +10,16 @@ import com.krab.lazy.input.LazyMouseEvent;
 import com.krab.lazy.stores.DelayStore;
 import com.krab.lazy.utils.KeyCodes;
 import com.krab.lazy.stores.ShaderStore;
+import com.krab.lazy.stores.ShaderUniforms;
 import com.krab.lazy.themes.ThemeColorType;
 import com.krab.lazy.themes.ThemeStore;
 import com.krab.lazy.utils.ListBuilder;
 import com.krab.lazy.utils.ClipboardUtils;
 import com.krab.lazy.stores.JsonSaveStore;
+import com.krab.lazy.stores.UpdateScheduler;
 import processing.core.PGraphics;
-import processing.opengl.PShader;
 
+import java.text.NumberFormat;
 import java.util.List;
 
 import static com.krab.lazy.stores.NormColorStore.*;
@@ -33,6 +35,7 @@ public class SliderNode extends AbstractNode {
     @Expose
     protected float valueFloatPrecision;
 
+    private volatile float frameValueFloat;
     float valueFloatDefault;
     final float valueFloatMin;
     final float valueFloatMax;
@@ -59,9 +62,7 @@ public class SliderNode extends AbstractNode {
     private boolean wasNumpadInputActiveLastFrame = false;
 
 
-    private static final String REGEX_FRACTION_SEPARATOR = "[.,]";
-    private static final String REGEX_ANY_NUMBER_SERIES = "[0-9]*";
-    private static final String FRACTIONAL_FLOAT_REGEX = REGEX_ANY_NUMBER_SERIES + REGEX_FRACTION_SEPARATOR + REGEX_ANY_NUMBER_SERIES;
+    private static NumberFormat defaultValueFormat = null;
     private final String shaderPath = "sliderBackground.glsl";
     protected int maximumFloatPrecisionIndex = -1;
     protected int minimumFloatPrecisionIndex = -1;
@@ -77,10 +78,24 @@ public class SliderNode extends AbstractNode {
         valueFloatConstrained = constrained &&
                 max != Float.MAX_VALUE &&
                 min != -Float.MAX_VALUE ;
-        setSensiblePrecision(nf(valueFloat, 0, 0));
+        setSensiblePrecision(formatDefaultValue(valueFloat));
         JsonSaveStore.overwriteWithLoadedStateIfAny(this);
     }
 
+    @Override
+    public void publishFrameValue() {
+        frameValueFloat = valueFloat;
+    }
+
+    /**
+     * Gets the value to return to the sketch, which is the value published at the end of the last frame
+     * when frame consistent values are enabled and the live value otherwise.
+     * @return current float value as seen by the sketch
+     */
+    public float getFrameValueFloat() {
+        return shouldReadFrameValue() ? frameValueFloat : valueFloat;
+    }
+
     public void initSliderBackgroundShader() {
         ShaderStore.getShader(shaderPath);
     }
@@ -90,7 +105,7 @@ public class SliderNode extends AbstractNode {
             setPrecisionIndexAndValue(precisionRange.indexOf(0.1f));
             return;
         }
-        if (value.matches(FRACTIONAL_FLOAT_REGEX)) {
+        if (isUnsignedFractionalNumber(value)) {
             int fractionalDigitLength = getFractionalDigitLength(value);
             setPrecisionIndexAndValue(4 - fractionalDigitLength);
             return;
@@ -98,29 +113,105 @@ public class SliderNode extends AbstractNode {
         setPrecisionIndexAndValue(precisionRange.indexOf(1f));
     }
 
+    /**
+     * Formats the value the same way as nf(value, 0, 0) but keeps its own number format instance,
+     * because nf() rebuilds its shared format whenever it gets called with different digit counts,
+     * which happens all the time when drawing and makes creating many sliders slow.
+     * @param value value to format
+     * @return value formatted with up to 3 fractional digits and no grouping
+     */
+    private static synchronized String formatDefaultValue(float value) {
+        if (defaultValueFormat == null) {
+            defaultValueFormat = NumberFormat.getInstance();
+            defaultValueFormat.setGroupingUsed(false);
+        }
+        return defaultValueFormat.format(value);
+    }
+
+    /**
+     * Checks that the value consists of digits with exactly one '.' or ',' separator somewhere among them.
+     * @param value number as a string
+     * @return true if the value is a non-negative number with a fraction separator
+     */
+    private static boolean isUnsignedFractionalNumber(String value) {
+        int separatorCount = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '.' || c == ',') {
+                separatorCount++;
+            } else if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return separatorCount == 1;
+    }
+
     private int getFractionalDigitLength(String value) {
-        if (value.contains(".") || value.contains(",")) {
-            return value.split(REGEX_FRACTION_SEPARATOR)[1].length();
+        int separatorIndex = indexOfFractionSeparator(value, 0);
+        if (separatorIndex == -1) {
+            return 0;
         }
-        return 0;
+        int nextSeparatorIndex = indexOfFractionSeparator(value, separatorIndex + 1);
+        if (nextSeparatorIndex == -1) {
+            nextSeparatorIndex = value.length();
+        }
+        return nextSeparatorIndex - separatorIndex - 1;
+    }
+
+    private static int indexOfFractionSeparator(String value, int fromIndex) {
+        for (int i = fromIndex; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '.' || c == ',') {
+                return i;
+            }
+        }
+        return -1;
     }
 
     @Override
-    protected void drawNodeBackground(PGraphics pg) {
+    public void updateInlineNode() {
         boolean constrainedThisFrame = tryConstrainValue();
-        if(isInlineNodeDragged || isMouseOverNode){
-            drawBackgroundScroller(pg, constrainedThisFrame);
+        if ((isInlineNodeDragged || isMouseOverNode) && !constrainedThisFrame) {
+            backgroundScrollX -= verticalMouseMode ? mouseDeltaY : mouseDeltaX;
+        }
+        if (valueFloatConstrained && showPercentIndicatorWhenConstrained) {
+            backgroundScrollX = 0;
         }
         mouseDeltaX = 0;
         mouseDeltaY = 0;
     }
 
+    @Override
+    public int getInlineDisplayHash() {
+        int hash = super.getInlineDisplayHash();
+        hash = 31 * hash + Float.hashCode(valueFloat);
+        hash = 31 * hash + currentPrecisionIndex;
+        hash = 31 * hash + Float.hashCode(backgroundScrollX);
+        boolean isNumpadInputActive = isNumpadInputActive();
+        hash = 31 * hash + Boolean.hashCode(isNumpadInputActive);
+        if (isNumpadInputActive || wasNumpadInputActiveLastFrame) {
+            hash = 31 * hash + numpadBufferValue.hashCode();
+        }
+        return hash;
+    }
+
+    @Override
+    protected void drawNodeBackground(PGraphics pg) {
+        if(isInlineNodeDragged || isMouseOverNode){
+            drawBackgroundScroller(pg);
+        }
+    }
+
     @Override
     public void updateValuesRegardlessOfParentWindowOpenness() {
         if (isInlineNodeDragged || isMouseOverNode) {
             updateValueMouseInteraction();
         }
         updateNumpad();
+        boolean hasPendingInput = mouseDeltaX != 0 || mouseDeltaY != 0 || isNumpadInputActive() || wasNumpadInputActiveLastFrame;
+        if (!hasPendingInput) {
+            UpdateScheduler.unsubscribe(this);
+        }
     }
 
     @Override
@@ -130,15 +221,11 @@ public class SliderNode extends AbstractNode {
         drawRightText(pg, getValueToDisplay() + (isNumpadInputActive() ? "_" : ""), true);
     }
 
-    private void drawBackgroundScroller(PGraphics pg, boolean constrainedThisFrame) {
-        if (!constrainedThisFrame) {
-            backgroundScrollX -= verticalMouseMode ? mouseDeltaY : mouseDeltaX;
-        }
+    private void drawBackgroundScroller(PGraphics pg) {
         float percentIndicatorNorm = 1f;
         boolean shouldShowPercentIndicator = valueFloatConstrained && showPercentIndicatorWhenConstrained;
         if (shouldShowPercentIndicator) {
             percentIndicatorNorm = constrain(norm(valueFloat, valueFloatMin, valueFloatMax), 0, 1);
-            backgroundScrollX = 0;
         }
 
         updateBackgroundShader(pg);
@@ -156,14 +243,14 @@ public class SliderNode extends AbstractNode {
     }
 
     protected void updateBackgroundShader(PGraphics pg) {
-        PShader shader = ShaderStore.getShader(shaderPath);
-        shader.set("scrollX", backgroundScrollX);
+        ShaderUniforms uniforms = ShaderStore.getUniforms(shaderPath);
+        uniforms.set("scrollX", backgroundScrollX);
         int bgColor = ThemeStore.getColor(ThemeColorType.NORMAL_BACKGROUND);
         int fgColor = ThemeStore.getColor(ThemeColorType.FOCUS_BACKGROUND);
-        shader.set("colorA", red(bgColor), green(bgColor), blue(bgColor));
-        shader.set("colorB", red(fgColor), green(fgColor), blue(fgColor));
-        shader.set("precisionNormalized", norm(currentPrecisionIndex, 0, precisionRange.size()));
-        pg.shader(shader);
+        uniforms.set("colorA", red(bgColor), green(bgColor), blue(bgColor));
+        uniforms.set("colorB", red(fgColor), green(fgColor), blue(fgColor));
+        uniforms.set("precisionNormalized", norm(currentPrecisionIndex, 0, precisionRange.size()));
+        pg.shader(uniforms.getShader());
     }
 
     protected String getValueToDisplay() {
@@ -352,6 +439,7 @@ public class SliderNode extends AbstractNode {
 
     protected void setNumpadInputActiveStarted() {
         numpadInputAppendLastMillis = app.millis();
+        UpdateScheduler.subscribe(this);
     }
 
     protected boolean isNumpadInputActive() {
@@ -391,6 +479,7 @@ public class SliderNode extends AbstractNode {
         super.mouseDragNodeContinue(e);
         mouseDeltaX = e.getPrevX() - e.getX();
         mouseDeltaY = e.getPrevY() - e.getY();
+        UpdateScheduler.subscribe(this);
         e.setConsumed(true);
     }
 
@@ -18,7 +18,9 @@ public class TextNode extends AbstractNode {
 
     @Expose
     String stringValue;
+    private volatile String frameStringValue;
     String buffer;
+    private String bufferMeasuredForHeight = null;
 
     private final int millisInputDelay;
     private int millisInputStarted;
@@ -42,15 +44,31 @@ public class TextNode extends AbstractNode {
     }
 
     @Override
-    protected void drawNodeForeground(PGraphics pg, String name) {
-        fillForegroundBasedOnMouseOver(pg);
+    public void updateInlineNode() {
         String toDisplay = buffer;
+        if (toDisplay == bufferMeasuredForHeight) {
+            return;
+        }
+        bufferMeasuredForHeight = toDisplay;
         int lineCount = toDisplay.split(regexLookBehindForNewLine).length + (toDisplay.endsWith("\n") ? 1 : 0);
         if(shouldDisplayHeaderRow){
-            drawLeftText(pg, name);
             lineCount += 1;
         }
         masterInlineNodeHeightInCells = lineCount;
+    }
+
+    @Override
+    public int getInlineDisplayHash() {
+        return 31 * super.getInlineDisplayHash() + buffer.hashCode();
+    }
+
+    @Override
+    protected void drawNodeForeground(PGraphics pg, String name) {
+        fillForegroundBasedOnMouseOver(pg);
+        String toDisplay = buffer;
+        if(shouldDisplayHeaderRow){
+            drawLeftText(pg, name);
+        }
         String contentToDraw = toDisplay.length() == 0 ? "..." : toDisplay;
         fillForegroundBasedOnMouseOver(pg);
         drawContent(pg, contentToDraw);
@@ -120,6 +138,9 @@ public class TextNode extends AbstractNode {
     @Override
     public void updateValuesRegardlessOfParentWindowOpenness() {
         trySetContentToBufferAfterDelay();
+        if(stringValue.equals(buffer)){
+            UpdateScheduler.unsubscribe(this);
+        }
     }
 
     private void trySetContentToBufferAfterDelay() {
@@ -138,6 +159,7 @@ public class TextNode extends AbstractNode {
                 return;
             }
             millisInputStarted = GlobalReferences.app.millis();
+            UpdateScheduler.subscribe(this);
             if (e.getKeyCode() == PConstants.BACKSPACE) {
                 if (buffer.length() > 0) {
                     buffer = buffer.substring(0, buffer.length() - 1);
@@ -172,6 +194,15 @@ public class TextNode extends AbstractNode {
         return stringValue;
     }
 
+    @Override
+    public void publishFrameValue() {
+        frameStringValue = stringValue;
+    }
+
+    public String getFrameStringValue() {
+        return shouldReadFrameValue() ? frameStringValue : stringValue;
+    }
+
     private void setStringValueUndoably(String newValue) {
         setStringValue(newValue);
         onActionEnded();
@@ -14,6 +14,7 @@ public class ToggleNode extends AbstractNode {
     public
     boolean valueBoolean;
     protected boolean armed = false;
+    private volatile boolean frameValueBoolean;
 
     public ToggleNode(String path, FolderNode folder, boolean defaultValue) {
         super(NodeType.VALUE, path, folder);
@@ -21,6 +22,20 @@ public class ToggleNode extends AbstractNode {
         JsonSaveStore.overwriteWithLoadedStateIfAny(this);
     }
 
+    @Override
+    public void publishFrameValue() {
+        frameValueBoolean = valueBoolean;
+    }
+
+    public boolean getFrameValueBoolean() {
+        return shouldReadFrameValue() ? frameValueBoolean : valueBoolean;
+    }
+
+    @Override
+    public int getInlineDisplayHash() {
+        return 31 * super.getInlineDisplayHash() + Boolean.hashCode(valueBoolean);
+    }
+
     @Override
     protected void drawNodeBackground(PGraphics pg) {
 
@@ -0,0 +1,233 @@
+package com.krab.lazy.stores;
+
+import com.krab.lazy.nodes.AbstractNode;
+import com.krab.lazy.nodes.FolderNode;
+import com.krab.lazy.nodes.NodeType;
+import com.krab.lazy.windows.WindowManager;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Removes dynamically created nodes from the tree when they are no longer used, which is opt-in and off by default.
+ * Meant for paths generated in loops like "agents/" + i + "/speed" where the number of agents can shrink,
+ * or for paths generated every frame, which would otherwise grow the tree, its windows and its saves without bound.
+ * Evicted nodes are kept in a bounded pool by their path, so when the same path gets queried again the original node
+ * is put back into the tree together with its value instead of allocating a new one.
+ * Everything here changes the node tree, so it runs while holding the NodeTree class lock.
+ */
+public class EvictionStore {
+    private static final int POOL_CAPACITY = 4096;
+    private static final Map<String, Rule> rulesByFolderPath = new LinkedHashMap<>();
+    private static final Map<String, PooledNode> pool = new LinkedHashMap<String, PooledNode>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PooledNode> eldest) {
+            return size() > POOL_CAPACITY;
+        }
+    };
+
+    private static class Rule {
+        final int maxFramesWithoutQuery;
+        int frameLastChecked;
+
+        Rule(int maxFramesWithoutQuery, int frameLastChecked) {
+            this.maxFramesWithoutQuery = maxFramesWithoutQuery;
+            this.frameLastChecked = frameLastChecked;
+        }
+    }
+
+    private static class PooledNode {
+        final AbstractNode node;
+        final List<AbstractNode> nodesSubscribedToUpdates;
+
+        PooledNode(AbstractNode node, List<AbstractNode> nodesSubscribedToUpdates) {
+            this.node = node;
+            this.nodesSubscribedToUpdates = nodesSubscribedToUpdates;
+        }
+    }
+
+    /**
+     * Sets or removes the rule that evicts nodes inside a folder when they have not been queried for a number of frames.
+     * @param folderPath full path of the folder whose contents can be evicted, the folder itself is kept
+     * @param maxFramesWithoutQuery number of frames a node can go without being queried, zero or less removes the rule
+     */
+    public static void setEvictionRule(String folderPath, int maxFramesWithoutQuery) {
+        synchronized (NodeTree.class) {
+            if (maxFramesWithoutQuery <= 0) {
+                rulesByFolderPath.remove(folderPath);
+                return;
+            }
+            rulesByFolderPath.put(folderPath, new Rule(maxFramesWithoutQuery, GlobalReferences.app.frameCount));
+        }
+    }
+
+    /**
+     * Applies the eviction rules, called once per frame.
+     * Each rule is checked at most every half of its frame limit, so the work scales with the number of rules
+     * and the size of their folders rather than with the frame rate.
+     */
+    public static void evictStaleNodesIfNeeded() {
+        if (rulesByFolderPath.isEmpty()) {
+            return;
+        }
+        synchronized (NodeTree.class) {
+            int frameCount = GlobalReferences.app.frameCount;
+            for (Map.Entry<String, Rule> entry : rulesByFolderPath.entrySet()) {
+                Rule rule = entry.getValue();
+                if (frameCount - rule.frameLastChecked < Math.max(1, rule.maxFramesWithoutQuery / 2)) {
+                    continue;
+                }
+                rule.frameLastChecked = frameCount;
+                AbstractNode folder = NodeTree.findNode(entry.getKey());
+                if (folder != null && folder.type == NodeType.FOLDER) {
+                    evictStaleChildren((FolderNode) folder, frameCount - rule.maxFramesWithoutQuery);
+                }
+            }
+        }
+    }
+
+    /**
+     * Evicts every node whose full path matches the regular expression.
+     * Parts of composite controls like the hue slider of a color picker are never evicted on their own
+     * and neither are the built-in "options" and "saves" folders.
+     * @param pathRegex regular expression to match against full node paths
+     * @return number of evicted nodes not counting their descendants
+     */
+    public static int evictNodesMatching(String pathRegex) {
+        Pattern pattern = Pattern.compile(pathRegex);
+        Map<FolderNode, List<AbstractNode>> nodesToEvictByParent = new LinkedHashMap<>();
+        Set<AbstractNode> matchedNodes = new HashSet<>();
+        synchronized (NodeTree.class) {
+            for (AbstractNode node : NodeTree.getAllNodes()) {
+                if (node.parent == null || !isPlainFolder(node.parent) || isBuiltIn(node) || isAnyAncestorMatched(node, matchedNodes)) {
+                    continue;
+                }
+                if (pattern.matcher(node.path).matches()) {
+                    nodesToEvictByParent.computeIfAbsent(node.parent, p -> new ArrayList<>()).add(node);
+                    matchedNodes.add(node);
+                }
+            }
+            for (Map.Entry<FolderNode, List<AbstractNode>> entry : nodesToEvictByParent.entrySet()) {
+                evict(entry.getKey(), entry.getValue());
+            }
+        }
+        return matchedNodes.size();
+    }
+
+    /**
+     * Puts an evicted node back into the tree if the pool still has it, along with any evicted parent folders it needs.
+     * @param path full path of the node
+     * @return the revived node or null when there is no pooled node at this path
+     */
+    public static AbstractNode tryRevive(String path) {
+        if (pool.isEmpty()) {
+            return null;
+        }
+        synchronized (NodeTree.class) {
+            PooledNode pooled = pool.remove(path);
+            if (pooled == null) {
+                return null;
+            }
+            if (!reattach(pooled)) {
+                return null;
+            }
+            return pooled.node;
+        }
+    }
+
+    public static int getPooledNodeCount() {
+        synchronized (NodeTree.class) {
+            return pool.size();
+        }
+    }
+
+    private static boolean reattach(PooledNode pooled) {
+        AbstractNode node = pooled.node;
+        FolderNode parent = node.parent;
+        AbstractNode nodeAtParentPath = NodeTree.findNode(parent.path);
+        if (nodeAtParentPath == null) {
+            PooledNode pooledParent = pool.remove(parent.path);
+            if (pooledParent == null || pooledParent.node != parent || !reattach(pooledParent)) {
+                return false;
+            }
+        } else if (nodeAtParentPath != parent) {
+            return false; // the parent folder was discarded from the pool and replaced by a new one
+        }
+        parent.addChild(node);
+        NodeTree.indexNodeAndChildren(node);
+        for (AbstractNode subscribedNode : pooled.nodesSubscribedToUpdates) {
+            UpdateScheduler.subscribe(subscribedNode);
+        }
+        node.lastQueriedFrame = GlobalReferences.app.frameCount;
+        return true;
+    }
+
+    private static void evictStaleChildren(FolderNode folder, int oldestAllowedQueryFrame) {
+        List<AbstractNode> staleChildren = null;
+        for (AbstractNode child : folder.children) {
+            boolean isStale;
+            if (isBuiltIn(child)) {
+                continue;
+            }
+            if (isPlainFolder(child)) {
+                FolderNode childFolder = (FolderNode) child;
+                evictStaleChildren(childFolder, oldestAllowedQueryFrame);
+                isStale = childFolder.children.isEmpty();
+            } else {
+                isStale = child.lastQueriedFrame < oldestAllowedQueryFrame;
+            }
+            if (isStale) {
+                if (staleChildren == null) {
+                    staleChildren = new ArrayList<>();
+                }
+                staleChildren.add(child);
+            }
+        }
+        if (staleChildren != null) {
+            evict(folder, staleChildren);
+        }
+    }
+
+    private static void evict(FolderNode parent, List<AbstractNode> nodesToEvict) {
+        parent.removeChildren(nodesToEvict);
+        for (AbstractNode node : nodesToEvict) {
+            List<AbstractNode> nodesSubscribedToUpdates = new ArrayList<>();
+            forgetInteractionState(node, nodesSubscribedToUpdates);
+            NodeTree.unindexNodeAndChildren(node);
+            pool.put(node.path, new PooledNode(node, nodesSubscribedToUpdates));
+        }
+    }
+
+    private static void forgetInteractionState(AbstractNode node, List<AbstractNode> nodesSubscribedToUpdates) {
+        InteractionStore.stopDragging(node);
+        InteractionStore.unmarkMouseOver(node);
+        if (UpdateScheduler.isSubscribed(node)) {
+            nodesSubscribedToUpdates.add(node);
+        }
+        if (node.type == NodeType.FOLDER) {
+            FolderNode folder = (FolderNode) node;
+            WindowManager.removeWindowOf(folder);
+            for (AbstractNode child : folder.children) {
+                forgetInteractionState(child, nodesSubscribedToUpdates);
+            }
+        }
+    }
+
+    private static boolean isPlainFolder(AbstractNode node) {
+        return node.getClass() == FolderNode.class;
+    }
+
+    private static boolean isBuiltIn(AbstractNode node) {
+        String path = node.path;
+        return path.equals("options") || path.startsWith("options/") || path.equals("saves") || path.startsWith("saves/");
+    }
+
+    private static boolean isAnyAncestorMatched(AbstractNode node, Set<AbstractNode> matchedNodes) {
+        for (FolderNode ancestor = node.parent; ancestor != null; ancestor = ancestor.parent) {
+            if (matchedNodes.contains(ancestor)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -3,8 +3,16 @@ package com.krab.lazy.stores;
 import processing.core.PFont;
 import processing.core.PGraphics;
 
+import java.util.*;
+
+import static processing.core.PApplet.max;
 import static processing.core.PApplet.println;
 
+/**
+ * Loads the GUI fonts and measures text in them.
+ * The text measurement caches are guarded by the lock of this class,
+ * because sketch worker threads measure text too when the folders they create suggest their window width.
+ */
 public class FontStore {
 
     public static float textMarginX = 5;
@@ -21,16 +29,19 @@ public class FontStore {
     private static PFont mainFont = null;
     private static PFont sideFont = null;
 
-    private static PGraphics mainFontUtilsProvider;
+    private static final int fittedTextCacheCapacity = 2048;
+    private static final List<GlyphAdvances> glyphAdvancesByFont = new ArrayList<>();
+    private static GlyphAdvances lastUsedGlyphAdvances = null;
+    private static final Map<String, FittedText> fittedFromStartCache = createFittedTextCache();
+    private static final Map<String, FittedText> fittedFromEndCache = createFittedTextCache();
 
-    public static PGraphics getMainFontUtilsProvider(){
-        if(mainFontUtilsProvider == null){
-            mainFontUtilsProvider = GlobalReferences.app.createGraphics(64, 64);
-        }
-        mainFontUtilsProvider.beginDraw();
-        mainFontUtilsProvider.textFont(mainFont);
-        mainFontUtilsProvider.endDraw();
-        return mainFontUtilsProvider;
+    private static Map<String, FittedText> createFittedTextCache() {
+        return new LinkedHashMap<String, FittedText>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, FittedText> eldest) {
+                return size() > fittedTextCacheCapacity;
+            }
+        };
     }
 
     public static void updateFontOptions() {
@@ -68,6 +79,9 @@ public class FontStore {
         boolean sideSizeChanged = lastSideFontSize != _sideFontSize;
         lastMainFontSize = _mainFontSize;
         lastSideFontSize = _sideFontSize;
+        if(mainSizeChanged || mainFontPathChanged || sideSizeChanged || sideFontPathChanged){
+            clearTextMeasurementCaches();
+        }
         if(mainSizeChanged || mainFontPathChanged){
             lastMainFontPath = _mainFontPath;
             try {
@@ -99,29 +113,194 @@ public class FontStore {
         }
     }
 
-    public static String getSubstringFromStartToFit(PGraphics pg, String text, float availableWidth) {
-        StringBuilder result = new StringBuilder();
+    /**
+     * Measures text in the main font at its loaded size without needing any PGraphics.
+     * @param text text to measure, can contain multiple lines
+     * @return width of the widest line
+     */
+    public static float getMainFontTextWidth(String text) {
+        return getTextWidth(mainFont, mainFont.getSize(), text);
+    }
+
+    /**
+     * Measures text in the current font and text size of pg, giving the same result as pg.textWidth()
+     * without going through the renderer.
+     * @param pg graphics with the font used for drawing the text already set
+     * @param text text to measure, can contain multiple lines
+     * @return width of the widest line
+     */
+    public static float getTextWidth(PGraphics pg, String text) {
+        return getTextWidth(pg.textFont, pg.textSize, text);
+    }
+
+    /**
+     * Measures text from the glyph metrics of the font on the CPU, just like processing does it,
+     * summing cached glyph advances that only get measured again when the font or the size changes.
+     * @param font font to measure the text in
+     * @param textSize text size to measure the text at
+     * @param text text to measure, can contain multiple lines
+     * @return width of the widest line
+     */
+    public static synchronized float getTextWidth(PFont font, float textSize, String text) {
+        GlyphAdvances glyphAdvances = getGlyphAdvances(font, textSize);
+        float widestLine = 0;
+        float lineWidth = 0;
         for (int i = 0; i < text.length(); i++) {
             char character = text.charAt(i);
-            float textWidthAfterNewChar = pg.textWidth(result.toString() + character);
-            if (textWidthAfterNewChar >= availableWidth) {
-                break;
+            if (character == '\n') {
+                widestLine = max(widestLine, lineWidth);
+                lineWidth = 0;
+            } else {
+                lineWidth += glyphAdvances.getAdvance(character);
             }
-            result.append(character);
         }
-        return result.toString();
+        return max(widestLine, lineWidth);
     }
 
+    /**
+     * Finds the longest start of the text that fits into the available width, when drawn with the current font of pg.
+     * Uses cached glyph advances and a binary search over their prefix sums, and caches the result for each text,
+     * so drawing the same label every frame does not measure anything.
+     * @param pg graphics with the font used for drawing the text already set
+     * @param text text to fit
+     * @param availableWidth width the result must be narrower than
+     * @return the longest fitting start of the text
+     */
+    public static String getSubstringFromStartToFit(PGraphics pg, String text, float availableWidth) {
+        return getSubstringToFit(pg, text, availableWidth, fittedFromStartCache, true);
+    }
+
+    /**
+     * Finds the longest end of the text that fits into the available width, when drawn with the current font of pg.
+     * Uses cached glyph advances and a binary search over their prefix sums, and caches the result for each text.
+     * @param pg graphics with the font used for drawing the text already set
+     * @param text text to fit
+     * @param availableWidth width the result must be narrower than
+     * @return the longest fitting end of the text
+     */
     public static String getSubstringFromEndToFit(PGraphics pg, String text, float availableWidth){
-        StringBuilder result = new StringBuilder();
-        for (int i = text.length() - 1; i >= 0; i--) {
-            char character = text.charAt(i);
-            float textWidthAfterNewChar = pg.textWidth(result.toString() + character);
-            if (textWidthAfterNewChar >= availableWidth) {
+        return getSubstringToFit(pg, text, availableWidth, fittedFromEndCache, false);
+    }
+
+    private static synchronized String getSubstringToFit(PGraphics pg, String text, float availableWidth,
+                                            Map<String, FittedText> cache, boolean fromStart) {
+        GlyphAdvances glyphAdvances = getGlyphAdvances(pg.textFont, pg.textSize);
+        FittedText fitted = cache.get(text);
+        if (fitted != null && fitted.glyphAdvances == glyphAdvances && fitted.availableWidth == availableWidth) {
+            return fitted.result;
+        }
+        float[] prefixWidths = glyphAdvances.getPrefixWidths(text, fromStart);
+        int fittingCharCount = findFittingCharCount(prefixWidths, text.length(), availableWidth);
+        String result = fromStart ?
+                text.substring(0, fittingCharCount) :
+                text.substring(text.length() - fittingCharCount);
+        if (fitted == null) {
+            fitted = new FittedText();
+            cache.put(text, fitted);
+        }
+        fitted.glyphAdvances = glyphAdvances;
+        fitted.availableWidth = availableWidth;
+        fitted.result = result;
+        return result;
+    }
+
+    /**
+     * Binary search for the highest char count whose width is still below the available width.
+     * Glyph advances are never negative, so the prefix widths never decrease.
+     */
+    private static int findFittingCharCount(float[] prefixWidths, int charCount, float availableWidth) {
+        int low = 0;
+        int high = charCount;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (prefixWidths[mid] < availableWidth) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private static GlyphAdvances getGlyphAdvances(PFont font, float textSize) {
+        GlyphAdvances glyphAdvances = lastUsedGlyphAdvances;
+        if (glyphAdvances != null && glyphAdvances.font == font && glyphAdvances.textSize == textSize) {
+            return glyphAdvances;
+        }
+        glyphAdvances = null;
+        for (GlyphAdvances candidate : glyphAdvancesByFont) {
+            if (candidate.font == font && candidate.textSize == textSize) {
+                glyphAdvances = candidate;
                 break;
             }
-            result.insert(0, character);
         }
-        return result.toString();
+        if (glyphAdvances == null) {
+            glyphAdvances = new GlyphAdvances(font, textSize);
+            glyphAdvancesByFont.add(glyphAdvances);
+        }
+        lastUsedGlyphAdvances = glyphAdvances;
+        return glyphAdvances;
+    }
+
+    private static synchronized void clearTextMeasurementCaches() {
+        glyphAdvancesByFont.clear();
+        lastUsedGlyphAdvances = null;
+        fittedFromStartCache.clear();
+        fittedFromEndCache.clear();
+    }
+
+    /**
+     * Advance width of every glyph of one font at one text size, read once per glyph from the font metrics
+     * the same way PGraphics.textWidth() does and kept in pages of 256 chars.
+     */
+    private static class GlyphAdvances {
+        final PFont font;
+        final float textSize;
+        final float[][] pages = new float[256][];
+        float[] prefixWidths = new float[64];
+
+        GlyphAdvances(PFont font, float textSize) {
+            this.font = font;
+            this.textSize = textSize;
+        }
+
+        float getAdvance(char character) {
+            float[] page = pages[character >>> 8];
+            if (page == null) {
+                page = new float[256];
+                Arrays.fill(page, -1);
+                pages[character >>> 8] = page;
+            }
+            float advance = page[character & 0xFF];
+            if (advance < 0) {
+                advance = font.width(character) * textSize;
+                page[character & 0xFF] = advance;
+            }
+            return advance;
+        }
+
+        /**
+         * Fills the reused prefix width array where index i holds the width of the first i chars,
+         * counted from the start or from the end of the text.
+         * @return array of at least text.length() + 1 widths, only valid until the next call
+         */
+        float[] getPrefixWidths(String text, boolean fromStart) {
+            int length = text.length();
+            if (prefixWidths.length < length + 1) {
+                prefixWidths = new float[max(length + 1, prefixWidths.length * 2)];
+            }
+            prefixWidths[0] = 0;
+            for (int i = 0; i < length; i++) {
+                char character = fromStart ? text.charAt(i) : text.charAt(length - 1 - i);
+                prefixWidths[i + 1] = prefixWidths[i] + getAdvance(character);
+            }
+            return prefixWidths;
+        }
+    }
+
+    private static class FittedText {
+        GlyphAdvances glyphAdvances;
+        float availableWidth;
+        String result;
     }
 }
@@ -0,0 +1,63 @@
+package com.krab.lazy.stores;
+
+import com.krab.lazy.nodes.AbstractNode;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Optional mode where the control values returned to the sketch only change once per frame.
+ * The values that the GUI and the input events change act as a back buffer and the sketch reads a front buffer
+ * that gets published from them at the end of every LazyGui.draw(), so every read of one path during a single frame
+ * returns the same value, even when read many times by a multi-pass renderer or from worker threads, without any locks.
+ * Values set from code with methods like sliderSet() also go to the back buffer and become visible from the next frame.
+ * Only the nodes that were read at least once while this mode was enabled get published, so unused controls cost nothing.
+ */
+public class FrameValueStore {
+    private static final AbstractNode[] NO_NODES = new AbstractNode[0];
+    private static volatile boolean enabled = false;
+    private static final Set<AbstractNode> trackedNodes = ConcurrentHashMap.newKeySet();
+    private static volatile boolean trackedNodesChanged = false;
+    private static AbstractNode[] nodesToPublish = NO_NODES;
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        FrameValueStore.enabled = enabled;
+    }
+
+    /**
+     * Starts publishing the values of this node at the end of every frame.
+     * @param node node read by the sketch in frame consistent mode
+     */
+    public static void track(AbstractNode node) {
+        if (trackedNodes.add(node)) {
+            trackedNodesChanged = true;
+        }
+    }
+
+    /**
+     * Stops publishing the values of a node that is no longer part of the tree.
+     * @param node node to forget
+     */
+    public static void untrack(AbstractNode node) {
+        if (trackedNodes.remove(node)) {
+            trackedNodesChanged = true;
+        }
+    }
+
+    /**
+     * Copies the back buffer values to the front buffer of every tracked node, called once at the end of LazyGui.draw().
+     */
+    public static void publishFrameValues() {
+        if (trackedNodesChanged) {
+            trackedNodesChanged = false;
+            nodesToPublish = trackedNodes.toArray(NO_NODES);
+        }
+        for (AbstractNode node : nodesToPublish) {
+            node.publishFrameValue();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.krab.lazy.stores;
+
+import com.krab.lazy.nodes.AbstractNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps track of which nodes are moused over and which node is being dragged,
+ * so that moving the mouse only touches the nodes that changed instead of resetting every node in the tree.
+ * The node flags isMouseOverNode and isInlineNodeDragged are still read by the nodes themselves when drawing,
+ * but they should only be written through this store so that it knows which flags need to be cleared later.
+ */
+public class InteractionStore {
+    private static final List<AbstractNode> nodesMarkedAsMouseOver = new ArrayList<>();
+    private static AbstractNode hoveredNode = null;
+    private static AbstractNode draggedNode = null;
+
+    /**
+     * Gets the node that the mouse was last found over by a window.
+     * @return hovered node or null if the mouse is not over any node
+     */
+    public static AbstractNode getHoveredNode() {
+        return hoveredNode;
+    }
+
+    /**
+     * Gets the node that received the mouse press that started the current drag.
+     * Nodes like the plot or the gradient preview also drag their sub-nodes, but only the outermost one is remembered here.
+     * @return dragged node or null if nothing is being dragged
+     */
+    public static AbstractNode getDraggedNode() {
+        return draggedNode;
+    }
+
+    /**
+     * Makes the node the only one moused over, clearing only the nodes that were previously marked as moused over.
+     * @param node node under the mouse
+     */
+    public static void setMouseOverThisNodeOnly(AbstractNode node) {
+        clearMouseOverExcept(node);
+        hoveredNode = node;
+        markMouseOver(node);
+    }
+
+    /**
+     * Clears the mouse over state of every node that has it.
+     */
+    public static void clearMouseOver() {
+        clearMouseOverExcept(null);
+        hoveredNode = null;
+    }
+
+    /**
+     * Highlights the node as moused over without changing which node is the hovered one.
+     * Used by composite nodes to highlight their related sub-nodes.
+     * @param node node to highlight
+     */
+    public static void markMouseOver(AbstractNode node) {
+        if (!node.isMouseOverNode) {
+            node.isMouseOverNode = true;
+            nodesMarkedAsMouseOver.add(node);
+        }
+    }
+
+    /**
+     * Removes the mouse over highlight from a single node.
+     * @param node node to stop highlighting
+     */
+    public static void unmarkMouseOver(AbstractNode node) {
+        if (node.isMouseOverNode) {
+            node.isMouseOverNode = false;
+            nodesMarkedAsMouseOver.remove(node);
+        }
+        if (hoveredNode == node) {
+            hoveredNode = null;
+        }
+    }
+
+    public static void startDragging(AbstractNode node) {
+        node.isInlineNodeDragged = true;
+        if (draggedNode == null) {
+            draggedNode = node;
+        }
+    }
+
+    public static void stopDragging(AbstractNode node) {
+        node.isInlineNodeDragged = false;
+        if (draggedNode == node) {
+            draggedNode = null;
+        }
+    }
+
+    private static void clearMouseOverExcept(AbstractNode nodeToKeep) {
+        boolean keptNodeWasMarked = false;
+        for (AbstractNode node : nodesMarkedAsMouseOver) {
+            if (node == nodeToKeep) {
+                keptNodeWasMarked = true;
+                continue;
+            }
+            node.isMouseOverNode = false;
+        }
+        nodesMarkedAsMouseOver.clear();
+        if (keptNodeWasMarked) {
+            nodesMarkedAsMouseOver.add(nodeToKeep);
+        }
+    }
+}
@@ -14,6 +14,7 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static processing.core.PApplet.max;
 import static processing.core.PApplet.println;
@@ -24,7 +25,7 @@ public class JsonSaveStore {
     public static boolean shouldLoadLatestSaveOnStartupByDefault = true;
     public static long autosaveLockGuardMillisLimit = 1000;
     private static long lastFrameMillisForLockGuard;
-    private static final Map<String, JsonElement> lastLoadedStateMap = new HashMap<>();
+    private static final Map<String, JsonElement> lastLoadedStateMap = new ConcurrentHashMap<>();
     private static File saveDir;
     private final static String JSON_FILE_TYPE_SUFFIX = ".json";
     private static ArrayList<File> saveFilesSorted;
@@ -6,13 +6,30 @@ import com.krab.lazy.nodes.NodeType;
 import com.krab.lazy.utils.NodePaths;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static processing.core.PApplet.println;
 
+/**
+ * The tree of all nodes along with an index of them by their full path.
+ * Lookups are lock free and safe from any thread.
+ * Every structural change like creating folders, inserting or removing nodes is done while holding the lock of this class,
+ * so that sketch worker threads can create controls while draw() runs and the new nodes are safely published to it.
+ */
 public class NodeTree {
     private static final FolderNode root = new FolderNode("", null);
-    private static final Map<String, AbstractNode> nodesByPath = new HashMap<>();
-    static List<String> knownUnexpectedQueries = new ArrayList<>();
+    private static final Map<String, AbstractNode> nodesByPath = new ConcurrentHashMap<>();
+    private static final AbstractNode[] NO_NODES = new AbstractNode[0];
+    private static final FolderNode[] NO_FOLDERS = new FolderNode[0];
+    private static final AtomicInteger structureVersion = new AtomicInteger();
+    private static volatile int flatArraysVersion = -1;
+    private static volatile AbstractNode[] allNodes = NO_NODES;
+    private static volatile FolderNode[] allFolders = NO_FOLDERS;
+
+    static {
+        indexNodeAndChildren(root);
+    }
 
     private NodeTree() {
 
@@ -22,48 +39,40 @@ public class NodeTree {
         return root;
     }
 
-    public static FolderNode findParentFolderLazyInitPath(String nodePath) {
+    public static synchronized FolderNode findParentFolderLazyInitPath(String nodePath) {
         String folderPath = NodePaths.getPathWithoutName(nodePath);
         lazyInitFolderPath(folderPath);
         AbstractNode pathParent = findNode(folderPath);
         return (FolderNode) pathParent;
     }
 
+    /**
+     * Finds a node by its full path using the path index.
+     * The index is kept complete by every insertion into the tree, so a miss means the path is not present
+     * and is answered without walking the tree.
+     * @param path full path of the node
+     * @return the node at the path or null if there is no such node
+     */
     public static AbstractNode findNode(String path) {
-        if (nodesByPath.containsKey(path)) {
-            return nodesByPath.get(path);
-        }
-        Queue<AbstractNode> queue = new LinkedList<>();
-        queue.offer(root);
-        while (!queue.isEmpty()) {
-            AbstractNode node = queue.poll();
-            if (node.path.equals(path)) {
-                // do type cast collision detection here
-                nodesByPath.put(path, node);
-                return node;
-            }
-            if (node.type == NodeType.FOLDER) {
-                FolderNode folder = (FolderNode) node;
-                for (AbstractNode child : folder.children) {
-                    queue.offer(child);
-                }
-            }
-        }
-        return null;
+        return nodesByPath.get(path);
     }
 
-    static void lazyInitFolderPath(String path) {
+    static synchronized void lazyInitFolderPath(String path) {
         String[] split = NodePaths.splitByUnescapedSlashes(path);
         String runningPath = split[0];
         FolderNode parentFolder = null;
         for (int i = 0; i < split.length; i++) {
             AbstractNode n = findNode(runningPath);
+            if (n == null) {
+                n = EvictionStore.tryRevive(runningPath);
+            }
             if (n == null) {
                 if (parentFolder == null) {
                     parentFolder = root;
                 }
                 n = new FolderNode(runningPath, parentFolder);
-                parentFolder.children.add(n);
+                parentFolder.addChild(n);
+                indexNodeAndChildren(n);
                 parentFolder = (FolderNode) n;
             } else if (n.type == NodeType.FOLDER) {
                 parentFolder = (FolderNode) n;
@@ -76,46 +85,158 @@ public class NodeTree {
         }
     }
 
-    public static void insertNodeAtItsPath(AbstractNode node) {
-        if (findNode(node.path) != null) {
-            return;
+    /**
+     * Inserts a newly created node into the tree, creating its parent folders if needed.
+     * When another thread managed to insert a node at the same path first, the new node is discarded instead.
+     * @param node node to insert
+     * @return true if the node was inserted, false if the path was already taken
+     */
+    public static synchronized boolean insertNodeAtItsPath(AbstractNode node) {
+        if (nodesByPath.containsKey(node.path)) {
+            discardUninsertedNode(node);
+            return false;
         }
         String folderPath = NodePaths.getPathWithoutName(node.path);
         lazyInitFolderPath(folderPath);
         FolderNode folder = (FolderNode) findNode(folderPath);
         assert folder != null;
-        folder.children.add(node);
+        folder.addChild(node);
+        indexNodeAndChildren(node);
+        return true;
+    }
+
+    /**
+     * Inserts a newly created node into the tree, or gets the node that another thread managed to insert at the same path first.
+     * The losing node gets discarded and would only ever return its default value, so the caller should continue with the winner.
+     * @param node node to insert
+     * @param expectedType class of the node
+     * @return the inserted node, the winning node of the same type, or the discarded node itself when the path got taken
+     *         by a different type, in which case it keeps returning its default value like any other path conflict
+     */
+    public static <T extends AbstractNode> T insertNodeOrFindWinner(T node, Class<T> expectedType) {
+        if (insertNodeAtItsPath(node)) {
+            return node;
+        }
+        AbstractNode winner = findNode(node.path);
+        if (winner == null || isNodeOfUnexpectedType(winner, expectedType)) {
+            return node;
+        }
+        return expectedType.cast(winner);
+    }
+
+    /**
+     * Forgets a node that was created but never inserted into the tree because its path got taken by another thread.
+     * @param node node to discard along with its children
+     */
+    public static void discardUninsertedNode(AbstractNode node) {
+        UpdateScheduler.unsubscribe(node);
+        if (node.type == NodeType.FOLDER) {
+            for (AbstractNode child : ((FolderNode) node).children) {
+                discardUninsertedNode(child);
+            }
+        }
+    }
+
+    /**
+     * Adds the node and all of its descendants to the path index.
+     * Composite nodes like color pickers build their children before they are inserted, so the whole subtree is indexed at once.
+     * Must also be called by folders that add children to themselves after they have already been inserted into the tree.
+     * @param node node to index along with its children
+     */
+    public static synchronized void indexNodeAndChildren(AbstractNode node) {
+        onStructureChanged();
+        nodesByPath.putIfAbsent(node.path, node);
+        if (node.type == NodeType.FOLDER) {
+            for (AbstractNode child : ((FolderNode) node).children) {
+                indexNodeAndChildren(child);
+            }
+        }
+    }
+
+    /**
+     * Removes the node and all of its descendants from the path index.
+     * Must be called by folders that remove children from themselves.
+     * @param node node to remove from the index along with its children
+     */
+    public static synchronized void unindexNodeAndChildren(AbstractNode node) {
+        onStructureChanged();
+        nodesByPath.remove(node.path, node);
+        UpdateScheduler.unsubscribe(node);
+        node.stopTrackingFrameValue();
+        if (node.type == NodeType.FOLDER) {
+            for (AbstractNode child : ((FolderNode) node).children) {
+                unindexNodeAndChildren(child);
+            }
+        }
+    }
+
+    /**
+     * Marks the flat node arrays as outdated, called whenever a node gets added to or removed from any folder.
+     */
+    public static void onStructureChanged() {
+        structureVersion.incrementAndGet();
+    }
+
+    /**
+     * Gets the structural version which changes every time a node gets added to or removed from any folder.
+     * @return current structural version
+     */
+    public static int getStructureVersion() {
+        return structureVersion.get();
+    }
+
+    /**
+     * Gets every node in the tree in breadth first order.
+     * The array is only rebuilt after the structure changes, so iterating over it every frame is allocation free.
+     * It is shared and must not be modified.
+     * @return all nodes including the root
+     */
+    public static AbstractNode[] getAllNodes() {
+        if (flatArraysVersion != structureVersion.get()) {
+            rebuildFlatArraysIfStructureChanged();
+        }
+        return allNodes;
+    }
+
+    /**
+     * Gets every folder in the tree in breadth first order.
+     * The array is only rebuilt after the structure changes and it is shared, so it must not be modified.
+     * @return all folder nodes including the root
+     */
+    public static FolderNode[] getAllFolders() {
+        if (flatArraysVersion != structureVersion.get()) {
+            rebuildFlatArraysIfStructureChanged();
+        }
+        return allFolders;
     }
 
     public static List<AbstractNode> getAllNodesAsList(){
-        List<AbstractNode> result = new ArrayList<>();
-        Queue<AbstractNode> queue = new LinkedList<>();
+        return Collections.unmodifiableList(Arrays.asList(getAllNodes()));
+    }
+
+    private static synchronized void rebuildFlatArraysIfStructureChanged() {
+        int versionToBuild = structureVersion.get();
+        if (flatArraysVersion == versionToBuild) {
+            return;
+        }
+        List<AbstractNode> nodes = new ArrayList<>();
+        List<FolderNode> folders = new ArrayList<>();
+        Queue<AbstractNode> queue = new ArrayDeque<>();
         queue.offer(root);
         while(!queue.isEmpty()){
             AbstractNode node = queue.poll();
-            result.add(node);
+            nodes.add(node);
             if (node.type == NodeType.FOLDER) {
                 FolderNode folder = (FolderNode) node;
+                folders.add(folder);
                 for (AbstractNode child : folder.children) {
                     queue.offer(child);
                 }
             }
         }
-        return result;
-    }
-
-    public static void setAllNodesMouseOverToFalse(){
-        setAllOtherNodesMouseOverToFalse(null);
-    }
-
-    public static void setAllOtherNodesMouseOverToFalse(AbstractNode nodeToKeep){
-        List<AbstractNode> allNodes = getAllNodesAsList();
-        for(AbstractNode node : allNodes){
-            if(node == nodeToKeep){
-                continue;
-            }
-            node.isMouseOverNode = false;
-        }
+        allNodes = nodes.toArray(NO_NODES);
+        allFolders = folders.toArray(NO_FOLDERS);
+        flatArraysVersion = versionToBuild;
     }
 
     public static FolderNode findFirstOpenParentNodeRecursively(FolderNode node) {
@@ -129,29 +250,30 @@ public class NodeTree {
     }
 
     public static <T extends AbstractNode> boolean isPathTakenByUnexpectedType(String path, Class<T> expectedType){
-        AbstractNode foundNode = findNode(path);
-        if(foundNode == null){
+        return isNodeOfUnexpectedType(findNode(path), expectedType);
+    }
+
+    /**
+     * Checks an already found node for a type conflict, printing a warning once per node and expected type.
+     * Does not allocate or throw, the common case of no conflict is a single reference comparison.
+     * @param foundNode node found at the path that the user asked for, can be null
+     * @param expectedType node class the caller expects
+     * @return true when the node exists and is not of the expected type
+     */
+    public static <T extends AbstractNode> boolean isNodeOfUnexpectedType(AbstractNode foundNode, Class<T> expectedType){
+        if(foundNode == null || foundNode.isOfExpectedType(expectedType)){
             return false;
         }
-        String expectedTypeName = expectedType.getSimpleName();
-        String uniquePathAndTypeQuery = path + " - " + expectedTypeName;
-        if(knownUnexpectedQueries.contains(uniquePathAndTypeQuery)){
-            // return early when this is a known conflict, no reason to spam the error or do the expensive exception
-            return true;
-        }
-        try{
-            expectedType.cast(foundNode);
-        }catch(Exception ex){
-            println("Path conflict warning: You tried to register a new " + expectedTypeName + " at \"" + path + "\"" +
+        if(foundNode.rememberTypeConflict(expectedType)){
+            String expectedTypeName = expectedType.getSimpleName();
+            println("Path conflict warning: You tried to register a new " + expectedTypeName + " at \"" + foundNode.path + "\"" +
                     " but that path is already in use by a " + foundNode.className + "." +
                     "\n\tThe original " + foundNode.className + " will still work as expected," +
                     " but the new " + expectedTypeName + " will not be shown and it will always return a default value." +
                     "\n\tLazyGui paths must be unique, so please use a different path for one of them."
             );
-            knownUnexpectedQueries.add(uniquePathAndTypeQuery);
-            return true;
         }
-        return false;
+        return true;
     }
 
     public static void hideAtFullPath(String path) {
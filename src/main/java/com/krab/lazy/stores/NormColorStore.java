@@ -3,14 +3,20 @@ package com.krab.lazy.stores;
 import processing.core.PGraphics;
 
 import static processing.core.PConstants.HSB;
-import static processing.core.PConstants.P2D;
+import static processing.core.PConstants.JAVA2D;
 
+/**
+ * Does color math in the normalized HSB color mode of the GUI with a tiny offscreen graphics object.
+ * Its color methods keep intermediate results in shared fields, so every method that uses it holds the lock of this class,
+ * because color pickers can also be created by sketch worker threads.
+ */
 public class NormColorStore {
 
     private static PGraphics colorStore = null;
 
     public static void init() {
-        colorStore = GlobalReferences.app.createGraphics(256, 256, P2D);
+        // only used for color math, so it needs no pixels to speak of and no GPU surface
+        colorStore = SurfaceStore.obtain(1, 1, JAVA2D, 0);
         colorStore.colorMode(HSB, 1, 1, 1, 1);
     }
 
@@ -26,37 +32,33 @@ public class NormColorStore {
         return color(hue, sat, br, 1);
     }
 
-    public static int color(float hue, float sat, float br, float alpha) {
+    public static synchronized int color(float hue, float sat, float br, float alpha) {
         return colorStore.color(hue, sat, br, alpha);
     }
 
-    public static float red(int hex){
+    public static synchronized float red(int hex){
         return colorStore.red(hex);
     }
 
-    public static float green(int hex){
+    public static synchronized float green(int hex){
         return colorStore.green(hex);
     }
 
-    public static float blue(int hex){
+    public static synchronized float blue(int hex){
         return colorStore.blue(hex);
     }
 
-    public static float hue(int hex){ return colorStore.hue(hex); }
+    public static synchronized float hue(int hex){ return colorStore.hue(hex); }
 
-    public static float sat(int hex){ return colorStore.saturation(hex); }
+    public static synchronized float sat(int hex){ return colorStore.saturation(hex); }
 
-    public static float br(int hex){ return colorStore.brightness(hex); }
+    public static synchronized float br(int hex){ return colorStore.brightness(hex); }
 
-    public static float alpha(int hex) {
+    public static synchronized float alpha(int hex) {
         return colorStore.alpha(hex);
     }
 
-    public static PGraphics getColorStore() {
-        return colorStore;
-    }
-
-    public static int toTransparent(int hex) {
+    public static synchronized int toTransparent(int hex) {
         if(hex == 0x00000000){
             hex = 0xFF010101;
         }
@@ -0,0 +1,89 @@
+package com.krab.lazy.stores;
+
+/**
+ * Decides in which frames the GUI refreshes, meaning it updates its windows and redraws the gui canvas if anything changed.
+ * In the frames between refreshes the cached gui canvas is shown again as it is, while the values read by the sketch
+ * and the input events that change them stay live in every frame.
+ * The GUI can refresh at its own rate independent of the sketch frame rate,
+ * and at a lower idle rate once no mouse or keyboard input has arrived for a while.
+ * A refresh rate of zero or less means refreshing in every frame of the sketch, which is the default.
+ * An idle rate of zero or less means staying at the refresh rate while idle, which is also the default,
+ * and an idle rate above the refresh rate is never used, so being idle never makes the GUI refresh more often.
+ */
+public class RefreshRateStore {
+    private static float refreshRate = 0;
+    private static float idleRefreshRate = 0;
+    private static int idleDelayMillis = 2000;
+    private static volatile int lastInputMillis = 0;
+    private static float nextRefreshMillis = 0;
+    private static boolean wasIdle = false;
+
+    public static float getRefreshRate() {
+        return refreshRate;
+    }
+
+    public static void setRefreshRate(float refreshRate) {
+        RefreshRateStore.refreshRate = refreshRate;
+    }
+
+    public static float getIdleRefreshRate() {
+        return idleRefreshRate;
+    }
+
+    public static void setIdleRefreshRate(float idleRefreshRate) {
+        RefreshRateStore.idleRefreshRate = idleRefreshRate;
+    }
+
+    public static int getIdleDelayMillis() {
+        return idleDelayMillis;
+    }
+
+    public static void setIdleDelayMillis(int idleDelayMillis) {
+        RefreshRateStore.idleDelayMillis = idleDelayMillis;
+    }
+
+    /**
+     * Remembers that the user just interacted, which ends the idle rate, called for every mouse and keyboard event.
+     */
+    public static void onInput() {
+        lastInputMillis = GlobalReferences.app.millis();
+    }
+
+    /**
+     * Checks whether the GUI should refresh in this frame, called once per frame.
+     * Refreshes right away when input arrives after an idle period so that the first reaction to it is not delayed.
+     * @return true when enough time has passed since the last refresh at the current rate
+     */
+    public static boolean isRefreshDue() {
+        int now = GlobalReferences.app.millis();
+        boolean isIdle = now - lastInputMillis > idleDelayMillis;
+        if (wasIdle && !isIdle) {
+            nextRefreshMillis = now;
+        }
+        wasIdle = isIdle;
+        float rate = isIdle ? getIdleRateOrRefreshRate() : refreshRate;
+        if (rate <= 0) {
+            return true;
+        }
+        if (now < nextRefreshMillis) {
+            return false;
+        }
+        float interval = 1000 / rate;
+        // keep to the schedule for an even rate, but start a new one when a frame came too late to catch up with it
+        nextRefreshMillis += interval;
+        if (nextRefreshMillis <= now) {
+            nextRefreshMillis = now + interval;
+        }
+        return true;
+    }
+
+    private static float getIdleRateOrRefreshRate() {
+        if (idleRefreshRate <= 0) {
+            return refreshRate;
+        }
+        if (refreshRate <= 0) {
+            return idleRefreshRate;
+        }
+        return Math.min(idleRefreshRate, refreshRate);
+    }
+}
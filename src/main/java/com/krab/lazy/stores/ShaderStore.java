@@ -2,11 +2,17 @@ package com.krab.lazy.stores;
 
 import processing.opengl.PShader;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Loads each shader once and shares it by its path.
+ * Controls created by sketch worker threads load their shaders here too, so the maps are concurrent.
+ * Loading only reads the shader source, compiling it happens later when the draw thread first binds it.
+ */
 public class ShaderStore {
-    private static final Map<String, PShader> shaders = new HashMap<>();
+    private static final Map<String, PShader> shaders = new ConcurrentHashMap<>();
+    private static final Map<String, ShaderUniforms> uniformsByPath = new ConcurrentHashMap<>();
     private static final String shaderFolder = "shaders/";
 
     private ShaderStore() {
@@ -14,10 +20,48 @@ public class ShaderStore {
     }
 
     public static PShader getShader(String path) {
-        String fullPath = shaderFolder + path;
-        if(!shaders.containsKey(fullPath)) {
-            shaders.put(fullPath, GlobalReferences.app.loadShader(fullPath));
+        PShader shader = shaders.get(path);
+        if(shader == null) {
+            shader = shaders.computeIfAbsent(path, p -> GlobalReferences.app.loadShader(shaderFolder + p));
         }
-        return shaders.get(fullPath);
+        return shader;
+    }
+
+    /**
+     * Gets the shader at this path wrapped in a cache of its uniform values, which skips setting values that did not change.
+     * @param path shader path inside the shader folder
+     * @return uniform cache of the shader
+     */
+    public static ShaderUniforms getUniforms(String path) {
+        ShaderUniforms uniforms = uniformsByPath.get(path);
+        if(uniforms == null) {
+            uniforms = uniformsByPath.computeIfAbsent(path, p -> new ShaderUniforms(getShader(p)));
+        }
+        return uniforms;
+    }
+
+    /**
+     * Makes every shader set all of its uniform values again, for when the GL context could have been recreated.
+     */
+    public static void invalidateUniforms() {
+        for (ShaderUniforms uniforms : uniformsByPath.values()) {
+            uniforms.invalidate();
+        }
+    }
+
+    public static long getUniformUploadCount() {
+        long count = 0;
+        for (ShaderUniforms uniforms : uniformsByPath.values()) {
+            count += uniforms.getUploadCount();
+        }
+        return count;
+    }
+
+    public static long getAvoidedUniformUploadCount() {
+        long count = 0;
+        for (ShaderUniforms uniforms : uniformsByPath.values()) {
+            count += uniforms.getAvoidedUploadCount();
+        }
+        return count;
     }
 }
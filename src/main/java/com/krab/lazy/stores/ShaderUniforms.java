@@ -0,0 +1,109 @@
+package com.krab.lazy.stores;
+
+import processing.opengl.PShader;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Remembers the last value set to each uniform of one shader and skips setting it again when it did not change.
+ * A shader program keeps its uniform values between draws, so a value that was already uploaded does not need to be
+ * passed to PShader.set() again, which would queue it for another upload on the next bind.
+ * Counts the uploads that were avoided this way, see ShaderStore for the totals.
+ */
+public class ShaderUniforms {
+    private static final int TYPE_FLOAT = 0;
+    private static final int TYPE_INT = 1;
+    private static final int TYPE_BOOLEAN = 2;
+
+    private final PShader shader;
+    private final Map<String, Uniform> uniforms = new HashMap<>();
+    private long uploadCount = 0;
+    private long avoidedUploadCount = 0;
+
+    private static class Uniform {
+        int type;
+        int componentCount;
+        final int[] bits = new int[4];
+    }
+
+    ShaderUniforms(PShader shader) {
+        this.shader = shader;
+    }
+
+    public PShader getShader() {
+        return shader;
+    }
+
+    public void set(String name, float x) {
+        if (isChanged(name, TYPE_FLOAT, 1, Float.floatToIntBits(x), 0, 0, 0)) {
+            shader.set(name, x);
+        }
+    }
+
+    public void set(String name, float x, float y) {
+        if (isChanged(name, TYPE_FLOAT, 2, Float.floatToIntBits(x), Float.floatToIntBits(y), 0, 0)) {
+            shader.set(name, x, y);
+        }
+    }
+
+    public void set(String name, float x, float y, float z) {
+        if (isChanged(name, TYPE_FLOAT, 3, Float.floatToIntBits(x), Float.floatToIntBits(y), Float.floatToIntBits(z), 0)) {
+            shader.set(name, x, y, z);
+        }
+    }
+
+    public void set(String name, float x, float y, float z, float w) {
+        if (isChanged(name, TYPE_FLOAT, 4, Float.floatToIntBits(x), Float.floatToIntBits(y),
+                Float.floatToIntBits(z), Float.floatToIntBits(w))) {
+            shader.set(name, x, y, z, w);
+        }
+    }
+
+    public void set(String name, int x) {
+        if (isChanged(name, TYPE_INT, 1, x, 0, 0, 0)) {
+            shader.set(name, x);
+        }
+    }
+
+    public void set(String name, boolean x) {
+        if (isChanged(name, TYPE_BOOLEAN, 1, x ? 1 : 0, 0, 0, 0)) {
+            shader.set(name, x);
+        }
+    }
+
+    /**
+     * Forgets every remembered value, so that all of them get set again, needed when the shader program could have lost them.
+     */
+    public void invalidate() {
+        uniforms.clear();
+    }
+
+    public long getUploadCount() {
+        return uploadCount;
+    }
+
+    public long getAvoidedUploadCount() {
+        return avoidedUploadCount;
+    }
+
+    private boolean isChanged(String name, int type, int componentCount, int x, int y, int z, int w) {
+        Uniform uniform = uniforms.get(name);
+        if (uniform == null) {
+            uniform = new Uniform();
+            uniforms.put(name, uniform);
+        } else if (uniform.type == type && uniform.componentCount == componentCount &&
+                uniform.bits[0] == x && uniform.bits[1] == y && uniform.bits[2] == z && uniform.bits[3] == w) {
+            avoidedUploadCount++;
+            return false;
+        }
+        uniform.type = type;
+        uniform.componentCount = componentCount;
+        uniform.bits[0] = x;
+        uniform.bits[1] = y;
+        uniform.bits[2] = z;
+        uniform.bits[3] = w;
+        uploadCount++;
+        return true;
+    }
+}
@@ -0,0 +1,108 @@
+package com.krab.lazy.stores;
+
+import processing.core.PGraphics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Central pool of the offscreen surfaces used by the GUI, keyed by their size, renderer and smoothing level.
+ * Surfaces that are no longer needed get released back here, so that the next request for a surface of the same kind
+ * reuses one instead of allocating new GPU and CPU memory.
+ * Released surfaces that nobody asks for again within a few frames get disposed, so the pool never holds on to much memory.
+ * A surface obtained from here keeps whatever style its previous user left on it,
+ * so anything like colorMode() should be set right after obtaining it and clear() should be called before drawing.
+ * Must only be used from the thread running draw(), because the pool is not synchronized
+ * and releasing a surface can dispose it, which needs the GL context of that thread.
+ */
+public class SurfaceStore {
+    private static final int maxFreeSurfaces = 8;
+    private static final int framesToKeepFreeSurface = 60;
+    private static final List<PooledSurface> freeSurfaces = new ArrayList<>();
+    private static final List<PooledSurface> surfacesInUse = new ArrayList<>();
+
+    private static class PooledSurface {
+        final PGraphics surface;
+        final String renderer;
+        final int smoothLevel;
+        int frameReleased;
+
+        PooledSurface(PGraphics surface, String renderer, int smoothLevel) {
+            this.surface = surface;
+            this.renderer = renderer;
+            this.smoothLevel = smoothLevel;
+        }
+
+        boolean matches(int width, int height, String renderer, int smoothLevel) {
+            return surface.width == width && surface.height == height &&
+                    this.renderer.equals(renderer) && this.smoothLevel == smoothLevel;
+        }
+    }
+
+    private SurfaceStore() {
+
+    }
+
+    /**
+     * Gets a surface of the requested kind, either a released one from the pool or a newly created one.
+     * @param width surface width in pixels
+     * @param height surface height in pixels
+     * @param renderer processing renderer like P2D or JAVA2D
+     * @param smoothLevel anti-aliasing level passed to smooth(), zero for noSmooth()
+     * @return surface that belongs to the caller until it gets released
+     */
+    public static PGraphics obtain(int width, int height, String renderer, int smoothLevel) {
+        for (int i = freeSurfaces.size() - 1; i >= 0; i--) {
+            PooledSurface pooled = freeSurfaces.get(i);
+            if (pooled.matches(width, height, renderer, smoothLevel)) {
+                freeSurfaces.remove(i);
+                surfacesInUse.add(pooled);
+                return pooled.surface;
+            }
+        }
+        PGraphics surface = GlobalReferences.app.createGraphics(width, height, renderer);
+        if (smoothLevel > 0) {
+            surface.smooth(smoothLevel);
+        } else {
+            surface.noSmooth();
+        }
+        surfacesInUse.add(new PooledSurface(surface, renderer, smoothLevel));
+        return surface;
+    }
+
+    /**
+     * Gives a surface back to the pool, after which the caller must not use it anymore.
+     * @param surface surface obtained from this store, null is ignored
+     */
+    public static void release(PGraphics surface) {
+        if (surface == null) {
+            return;
+        }
+        for (int i = 0; i < surfacesInUse.size(); i++) {
+            PooledSurface pooled = surfacesInUse.get(i);
+            if (pooled.surface == surface) {
+                surfacesInUse.remove(i);
+                pooled.frameReleased = GlobalReferences.app.frameCount;
+                freeSurfaces.add(pooled);
+                if (freeSurfaces.size() > maxFreeSurfaces) {
+                    freeSurfaces.remove(0).surface.dispose();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Disposes the released surfaces that were not reused for a while, called once per frame.
+     */
+    public static void disposeStaleFreeSurfaces() {
+        int frameCount = GlobalReferences.app.frameCount;
+        for (int i = freeSurfaces.size() - 1; i >= 0; i--) {
+            PooledSurface pooled = freeSurfaces.get(i);
+            if (frameCount - pooled.frameReleased > framesToKeepFreeSurface) {
+                freeSurfaces.remove(i);
+                pooled.surface.dispose();
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.krab.lazy.stores;
+
+import com.krab.lazy.nodes.AbstractNode;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Calls updateValuesRegardlessOfParentWindowOpenness() every frame on the nodes that asked for it,
+ * so that the per-frame cost scales with the number of active nodes instead of the size of the whole tree.
+ * Composite nodes that poll their children subscribe once when they are created,
+ * while simple controls like sliders and text inputs only subscribe while they have some pending input to process
+ * and unsubscribe themselves when they go idle.
+ * Subscribing or unsubscribing during an update is allowed and takes effect from the next frame.
+ * Nodes can subscribe from any thread, the updates themselves always run on the thread calling LazyGui.draw().
+ */
+public class UpdateScheduler {
+    private static final AbstractNode[] NO_NODES = new AbstractNode[0];
+    private static final Set<AbstractNode> subscribers = new LinkedHashSet<>();
+    private static AbstractNode[] subscribersToUpdate = NO_NODES;
+    private static boolean subscribersChanged = false;
+
+    public static synchronized void subscribe(AbstractNode node) {
+        if (subscribers.add(node)) {
+            subscribersChanged = true;
+        }
+    }
+
+    public static synchronized void unsubscribe(AbstractNode node) {
+        if (subscribers.remove(node)) {
+            subscribersChanged = true;
+        }
+    }
+
+    public static synchronized boolean isSubscribed(AbstractNode node) {
+        return subscribers.contains(node);
+    }
+
+    public static synchronized int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Updates all the currently subscribed nodes in the order they subscribed in.
+     */
+    public static void updateSubscribedNodes() {
+        for (AbstractNode node : getSubscribersToUpdate()) {
+            node.updateValuesRegardlessOfParentWindowOpenness();
+        }
+    }
+
+    private static synchronized AbstractNode[] getSubscribersToUpdate() {
+        if (subscribersChanged) {
+            subscribersToUpdate = subscribers.toArray(NO_NODES);
+            subscribersChanged = false;
+        }
+        return subscribersToUpdate;
+    }
+}
@@ -1,5 +1,7 @@
 package com.krab.lazy.themes;
 
+import com.krab.lazy.ColorPickerHandle;
+import com.krab.lazy.RadioHandle;
 import com.krab.lazy.stores.GlobalReferences;
 
 import java.util.HashMap;
@@ -10,6 +12,17 @@ public class ThemeStore {
     private static final Map<ThemeType, Theme> paletteMap = new HashMap<>();
     public static ThemeType currentSelection = ThemeType.DARK;
     private static String defaultThemeType = currentSelection.name();
+    private static int themeVersion = 0;
+    private static final ThemeColorType[] colorTypes = ThemeColorType.values();
+    // colors of the active theme indexed by ThemeColorType.ordinal(), resolved only when the theme changes
+    private static final int[] activeColors = new int[colorTypes.length];
+    private static final ThemeColorType[] colorPickerOrder = new ThemeColorType[]{
+            ThemeColorType.FOCUS_FOREGROUND, ThemeColorType.FOCUS_BACKGROUND, ThemeColorType.NORMAL_FOREGROUND,
+            ThemeColorType.NORMAL_BACKGROUND, ThemeColorType.WINDOW_BORDER};
+    private static final String[] colorPickerNames = new String[]{
+            "focus foreground", "focus background", "normal foreground", "normal background", "window border"};
+    private static final ColorPickerHandle[] colorPickers = new ColorPickerHandle[colorTypes.length];
+    private static RadioHandle presetPicker = null;
 
     public static void setCustomPaletteAndMakeDefaultBeforeInit(Theme theme) {
         defaultThemeType = ThemeType.getName(ThemeType.CUSTOM);
@@ -26,22 +39,13 @@ public class ThemeStore {
                 paletteMap.put(type, ThemeType.getPalette(type));
             }
         }
+        for (ThemeColorType colorType : colorTypes) {
+            activeColors[colorType.ordinal()] = getColor(colorType, ThemeType.CUSTOM);
+        }
     }
 
     public static int getColor(ThemeColorType type) {
-        switch (type) {
-            case WINDOW_BORDER:
-                return paletteMap.get(ThemeType.CUSTOM).windowBorder;
-            case NORMAL_BACKGROUND:
-                return paletteMap.get(ThemeType.CUSTOM).normalBackground;
-            case FOCUS_BACKGROUND:
-                return paletteMap.get(ThemeType.CUSTOM).focusBackground;
-            case NORMAL_FOREGROUND:
-                return paletteMap.get(ThemeType.CUSTOM).normalForeground;
-            case FOCUS_FOREGROUND:
-                return paletteMap.get(ThemeType.CUSTOM).focusForeground;
-        }
-        return 0xFFFF0000;
+        return activeColors[type.ordinal()];
     }
 
     static int getColor(ThemeColorType colorType, ThemeType paletteType) {
@@ -60,7 +64,20 @@ public class ThemeStore {
         return 0xFFFF0000;
     }
 
+    /**
+     * Gets a number that changes whenever any color of the active theme changes, so that cached drawings can tell they are outdated.
+     * @return current theme version
+     */
+    public static int getThemeVersion() {
+        return themeVersion;
+    }
+
     static void setCustomColor(ThemeColorType type, int val) {
+        if (activeColors[type.ordinal()] == val) {
+            return;
+        }
+        activeColors[type.ordinal()] = val;
+        themeVersion++;
         switch (type) {
             case WINDOW_BORDER:
                 paletteMap.get(ThemeType.CUSTOM).windowBorder = val;
@@ -80,32 +97,36 @@ public class ThemeStore {
         }
     }
 
+    /**
+     * Applies changes made in the theme folder, called every frame.
+     * Creates the theme controls on the first call and then reads them through handles,
+     * so an unchanged theme only costs comparing a few values and the colors get resolved only when one of them changes.
+     */
     public static void updateThemePicker() {
-            GlobalReferences.gui.pushFolder("themes");
-            String userSelection = GlobalReferences.gui.radio("preset", ThemeType.getAllNames(), defaultThemeType);
-
-            if (!userSelection.equals(ThemeType.getName(ThemeStore.currentSelection))) {
-                ThemeType newSelectionToCopy = ThemeType.getValue(userSelection);
-                GlobalReferences.gui.colorPickerSet("focus foreground", ThemeStore.getColor(ThemeColorType.FOCUS_FOREGROUND, newSelectionToCopy));
-                GlobalReferences.gui.colorPickerSet("focus background", ThemeStore.getColor(ThemeColorType.FOCUS_BACKGROUND, newSelectionToCopy));
-                GlobalReferences.gui.colorPickerSet("normal foreground", ThemeStore.getColor(ThemeColorType.NORMAL_FOREGROUND, newSelectionToCopy));
-                GlobalReferences.gui.colorPickerSet("normal background", ThemeStore.getColor(ThemeColorType.NORMAL_BACKGROUND, newSelectionToCopy));
-                GlobalReferences.gui.colorPickerSet("window border", ThemeStore.getColor(ThemeColorType.WINDOW_BORDER, newSelectionToCopy));
-                ThemeStore.currentSelection = newSelectionToCopy;
+        if (presetPicker == null) {
+            createThemePicker();
+        }
+        String userSelection = presetPicker.get();
+        if (!userSelection.equals(ThemeType.getName(currentSelection))) {
+            ThemeType newSelectionToCopy = ThemeType.getValue(userSelection);
+            for (ThemeColorType colorType : colorTypes) {
+                colorPickers[colorType.ordinal()].set(getColor(colorType, newSelectionToCopy));
             }
-            assert currentSelection != null;
-            Theme defaultTheme = ThemeType.getPalette(currentSelection);
-            assert defaultTheme != null;
-            ThemeStore.setCustomColor(ThemeColorType.FOCUS_FOREGROUND,
-                    GlobalReferences.gui.colorPicker("focus foreground", defaultTheme.focusForeground).hex);
-            ThemeStore.setCustomColor(ThemeColorType.FOCUS_BACKGROUND,
-                    GlobalReferences.gui.colorPicker("focus background", defaultTheme.focusBackground).hex);
-            ThemeStore.setCustomColor(ThemeColorType.NORMAL_FOREGROUND,
-                    GlobalReferences.gui.colorPicker("normal foreground", defaultTheme.normalForeground).hex);
-            ThemeStore.setCustomColor(ThemeColorType.NORMAL_BACKGROUND,
-                    GlobalReferences.gui.colorPicker("normal background", defaultTheme.normalBackground).hex);
-            ThemeStore.setCustomColor(ThemeColorType.WINDOW_BORDER,
-                    GlobalReferences.gui.colorPicker("window border", defaultTheme.windowBorder).hex);
-            GlobalReferences.gui.popFolder();
+            currentSelection = newSelectionToCopy;
+        }
+        for (ThemeColorType colorType : colorTypes) {
+            setCustomColor(colorType, colorPickers[colorType.ordinal()].hex());
+        }
+    }
+
+    private static void createThemePicker() {
+        GlobalReferences.gui.pushFolder("themes");
+        presetPicker = GlobalReferences.gui.radioHandle("preset", ThemeType.getAllNames(), defaultThemeType);
+        for (int i = 0; i < colorPickerOrder.length; i++) {
+            ThemeColorType colorType = colorPickerOrder[i];
+            int defaultColor = getColor(colorType, currentSelection);
+            colorPickers[colorType.ordinal()] = GlobalReferences.gui.colorPickerHandle(colorPickerNames[i], defaultColor);
+        }
+        GlobalReferences.gui.popFolder();
     }
 }
@@ -0,0 +1,123 @@
+package com.krab.lazy.utils;
+
+import processing.core.PGraphics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static processing.core.PApplet.*;
+
+/**
+ * Remembers which parts of the gui canvas have something drawn on them, so that only those parts get blended onto the sketch
+ * instead of the whole full resolution canvas.
+ * Rectangles are collected while the gui canvas is being drawn and then rounded outwards to whole pixels.
+ * Overlapping rectangles get merged into their bounding box, so no pixel ever gets blended twice.
+ */
+public class CanvasRegions {
+    private static final List<Region> regions = new ArrayList<>();
+    private static boolean isFullCanvas = false;
+
+    private static class Region {
+        int x0, y0, x1, y1;
+
+        Region(int x0, int y0, int x1, int y1) {
+            this.x0 = x0;
+            this.y0 = y0;
+            this.x1 = x1;
+            this.y1 = y1;
+        }
+
+        boolean overlaps(Region other) {
+            return x0 < other.x1 && other.x0 < x1 && y0 < other.y1 && other.y0 < y1;
+        }
+
+        void include(Region other) {
+            x0 = min(x0, other.x0);
+            y0 = min(y0, other.y0);
+            x1 = max(x1, other.x1);
+            y1 = max(y1, other.y1);
+        }
+    }
+
+    /**
+     * Forgets all regions, called before the gui canvas gets drawn again.
+     */
+    public static void clear() {
+        regions.clear();
+        isFullCanvas = false;
+    }
+
+    /**
+     * Marks a rectangle of the gui canvas as drawn on.
+     * @param x left edge in canvas coordinates
+     * @param y top edge in canvas coordinates
+     * @param w width
+     * @param h height
+     */
+    public static void addRect(float x, float y, float w, float h) {
+        if (isFullCanvas || w <= 0 || h <= 0) {
+            return;
+        }
+        regions.add(new Region(floor(x), floor(y), ceil(x + w), ceil(y + h)));
+    }
+
+    /**
+     * Marks the whole gui canvas as drawn on, for things like full screen filters.
+     */
+    public static void addFullCanvas() {
+        isFullCanvas = true;
+        regions.clear();
+    }
+
+    /**
+     * Clips the collected regions to the canvas and merges the overlapping ones, called once the gui canvas is drawn.
+     * @param canvasWidth gui canvas width
+     * @param canvasHeight gui canvas height
+     */
+    public static void finish(int canvasWidth, int canvasHeight) {
+        for (int i = regions.size() - 1; i >= 0; i--) {
+            Region region = regions.get(i);
+            region.x0 = max(region.x0, 0);
+            region.y0 = max(region.y0, 0);
+            region.x1 = min(region.x1, canvasWidth);
+            region.y1 = min(region.y1, canvasHeight);
+            if (region.x0 >= region.x1 || region.y0 >= region.y1) {
+                regions.remove(i);
+            }
+        }
+        boolean mergedAny = true;
+        while (mergedAny) {
+            mergedAny = false;
+            for (int i = 0; i < regions.size() && !mergedAny; i++) {
+                for (int j = i + 1; j < regions.size(); j++) {
+                    if (regions.get(i).overlaps(regions.get(j))) {
+                        regions.get(i).include(regions.remove(j));
+                        mergedAny = true;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Blends the drawn regions of the gui canvas onto the target at the same coordinates.
+     * @param source gui canvas
+     * @param target canvas to draw the gui on, expected to be in imageMode(CORNER)
+     */
+    public static void drawRegions(PGraphics source, PGraphics target) {
+        if (isFullCanvas) {
+            target.image(source, 0, 0);
+            return;
+        }
+        for (Region region : regions) {
+            int w = region.x1 - region.x0;
+            int h = region.y1 - region.y0;
+            target.image(source, region.x0, region.y0, w, h, region.x0, region.y0, region.x1, region.y1);
+        }
+    }
+
+    public static boolean isEmpty() {
+        return !isFullCanvas && regions.isEmpty();
+    }
+}
@@ -0,0 +1,248 @@
+package com.krab.lazy.utils;
+
+/**
+ * Evaluates the colors of a gradient on the CPU with the same math as the gradient.glsl shader,
+ * so that looking up gradient colors never needs to render anything or read pixels back from the GPU.
+ * Covers the "mix", "rgb" and "hsv" blend types and the edge wrap behavior of the shader along the gradient axis.
+ * The stop colors get converted to RGB once when they are set, instead of once per sample like in the shader.
+ * Setting the stops is not thread safe, but once they are set any number of threads can evaluate colors at the same time.
+ */
+public class GradientEvaluator {
+    public static final int BLEND_MIX = 0;
+    public static final int BLEND_RGB = 1;
+    public static final int BLEND_HSV = 2;
+
+    // displacement strength of the improved rgb lerp, see DSP_STR in gradient.glsl
+    private static final float displacementStrength = 1.5f;
+
+    private int colorCount = 0;
+    private float[] positions = new float[0];
+    private float[] stopsRgba = new float[0];
+    private float[] stopsHsv = new float[0];
+    private int blendType = BLEND_MIX;
+    private boolean wrapAtEdges = false;
+
+    /**
+     * Sets the color stops, which are expected to already be sorted by their position.
+     * @param hsbaValues hue, saturation, brightness and alpha of each stop in the [0,1] range, four floats per stop
+     * @param stopPositions position of each stop in the [0,1] range
+     * @param colorCount number of stops to use
+     */
+    public void setStops(float[] hsbaValues, float[] stopPositions, int colorCount) {
+        this.colorCount = 0;
+        if (positions.length != colorCount) {
+            positions = new float[colorCount];
+            stopsRgba = new float[colorCount * 4];
+            stopsHsv = new float[colorCount * 3];
+        }
+        System.arraycopy(stopPositions, 0, positions, 0, colorCount);
+        for (int i = 0; i < colorCount; i++) {
+            hsbToRgb(hsbaValues[i * 4], hsbaValues[i * 4 + 1], hsbaValues[i * 4 + 2], stopsRgba, i * 4);
+            stopsRgba[i * 4 + 3] = hsbaValues[i * 4 + 3];
+            rgbToHsv(stopsRgba[i * 4], stopsRgba[i * 4 + 1], stopsRgba[i * 4 + 2], stopsHsv, i * 3);
+        }
+        // set last so that the count never exceeds the arrays
+        this.colorCount = colorCount;
+    }
+
+    public void setBlendType(int blendType) {
+        this.blendType = blendType;
+    }
+
+    public void setWrapAtEdges(boolean wrapAtEdges) {
+        this.wrapAtEdges = wrapAtEdges;
+    }
+
+    /**
+     * Fills the whole array with colors sampled at the centers of its evenly sized cells along the gradient,
+     * just like the pixels of one row or column of the rendered gradient image.
+     * @param lookUpTable array to fill with processing ARGB colors
+     */
+    public void fillLookUpTable(int[] lookUpTable) {
+        float[] scratch = new float[4];
+        int resolution = lookUpTable.length;
+        for (int i = 0; i < resolution; i++) {
+            lookUpTable[i] = colorAt((i + 0.5f) / resolution, scratch);
+        }
+    }
+
+    /**
+     * Evaluates a single color of the gradient.
+     * @param position position along the gradient in the [0,1] range, gets clamped
+     * @param scratch array of at least 4 floats to use for intermediate results, to avoid allocating anything per sample
+     * @return processing ARGB color
+     */
+    public int colorAt(float position, float[] scratch) {
+        if (colorCount == 0) {
+            return 0;
+        }
+        float pos = clamp01(position);
+        int lastIndex = colorCount - 1;
+        int leftIndex = lastIndex;
+        int rightIndex = 0;
+        if (pos > positions[0] && pos < positions[lastIndex]) {
+            for (int i = 0; i < lastIndex; i++) {
+                if (pos >= positions[i] && pos <= positions[i + 1]) {
+                    leftIndex = i;
+                    rightIndex = i + 1;
+                    break;
+                }
+            }
+        }
+        float posA = positions[leftIndex];
+        float posB = positions[rightIndex];
+        float amt = norm(pos, posA, posB);
+        boolean isWrappable = rightIndex == 0 && leftIndex == lastIndex;
+        if (isWrappable && wrapAtEdges) {
+            if (pos > positions[lastIndex]) {
+                amt = norm(pos, posA, posB + 1);
+            } else {
+                amt = norm(pos, posA - 1, posB);
+            }
+        }
+        amt = Float.isNaN(amt) ? 0 : clamp01(amt);
+        lerpByBlendType(leftIndex, rightIndex, amt, scratch);
+        return toArgb(scratch);
+    }
+
+    private void lerpByBlendType(int indexA, int indexB, float amt, float[] out) {
+        int a = indexA * 4;
+        int b = indexB * 4;
+        out[3] = lerp(stopsRgba[a + 3], stopsRgba[b + 3], amt);
+        if (blendType == BLEND_RGB) {
+            improvedRgbLerp(a, b, amt, out);
+        } else if (blendType == BLEND_HSV) {
+            hsvLerp(indexA * 3, indexB * 3, smoothstep(amt), out);
+        } else {
+            for (int i = 0; i < 3; i++) {
+                out[i] = lerp(stopsRgba[a + i], stopsRgba[b + i], amt);
+            }
+        }
+    }
+
+    private void improvedRgbLerp(int a, int b, float x, float[] out) {
+        float r = lerp(stopsRgba[a], stopsRgba[b], x) + 1e-6f;
+        float g = lerp(stopsRgba[a + 1], stopsRgba[b + 1], x);
+        float bl = lerp(stopsRgba[a + 2], stopsRgba[b + 2], x);
+        float saturationA = saturation(stopsRgba[a], stopsRgba[a + 1], stopsRgba[a + 2]);
+        float saturationB = saturation(stopsRgba[b], stopsRgba[b + 1], stopsRgba[b + 2]);
+        float saturationError = Math.abs(saturation(r, g, bl) - lerp(saturationA, saturationB, x));
+        float dirR = 2 * r - g - bl;
+        float dirG = 2 * g - r - bl;
+        float dirB = 2 * bl - g - r;
+        float dirLength = length(dirR, dirG, dirB);
+        float colorLength = length(r, g, bl);
+        if (dirLength > 0 && colorLength > 0) {
+            dirR /= dirLength;
+            dirG /= dirLength;
+            dirB /= dirLength;
+            float lightness = r + g + bl;
+            float scale = (dirR * r + dirG * g + dirB * bl) / colorLength;
+            float displacement = displacementStrength * saturationError * scale * lightness;
+            r += dirR * displacement;
+            g += dirG * displacement;
+            bl += dirB * displacement;
+        }
+        out[0] = clamp01(r);
+        out[1] = clamp01(g);
+        out[2] = clamp01(bl);
+    }
+
+    private void hsvLerp(int a, int b, float x, float[] out) {
+        float hueA = stopsHsv[a];
+        float hueDelta = mod(mod(stopsHsv[b] - hueA, 1) + 1.5f, 1) - 0.5f;
+        float hue = hueDelta * x + hueA;
+        float saturation = lerp(stopsHsv[a + 1], stopsHsv[b + 1], x);
+        float value = lerp(stopsHsv[a + 2], stopsHsv[b + 2], x);
+        hsbToRgb(hue, saturation, value, out, 0);
+    }
+
+    /**
+     * Smooth HSB to RGB conversion with cubic smoothing, matching hsb2rgb() and hsv2rgb() in gradient.glsl.
+     */
+    private static void hsbToRgb(float hue, float saturation, float brightness, float[] out, int offset) {
+        out[offset] = hsbChannel(hue, 0, saturation, brightness);
+        out[offset + 1] = hsbChannel(hue, 4, saturation, brightness);
+        out[offset + 2] = hsbChannel(hue, 2, saturation, brightness);
+    }
+
+    private static float hsbChannel(float hue, float channelOffset, float saturation, float brightness) {
+        float c = clamp01(Math.abs(mod(hue * 6 + channelOffset, 6) - 3) - 1);
+        c = c * c * (3 - 2 * c);
+        return brightness * lerp(1, c, saturation);
+    }
+
+    /**
+     * RGB to HSV conversion matching rgb2hsv() in gradient.glsl.
+     */
+    private static void rgbToHsv(float r, float g, float b, float[] out, int offset) {
+        float px, py, pz, pw;
+        if (g >= b) {
+            px = g;
+            py = b;
+            pz = 0;
+            pw = -1 / 3f;
+        } else {
+            px = b;
+            py = g;
+            pz = -1;
+            pw = 2 / 3f;
+        }
+        float qx, qy, qz, qw;
+        if (r >= px) {
+            qx = r;
+            qy = py;
+            qz = pz;
+            qw = px;
+        } else {
+            qx = px;
+            qy = py;
+            qz = pw;
+            qw = r;
+        }
+        float d = qx - Math.min(qw, qy);
+        float e = 1.0e-10f;
+        out[offset] = Math.abs(qz + (qw - qy) / (6 * d + e));
+        out[offset + 1] = d / (qx + e);
+        out[offset + 2] = qx;
+    }
+
+    private static float saturation(float r, float g, float b) {
+        float min = Math.min(Math.min(r, g), b);
+        float max = Math.max(Math.max(r, g), b);
+        return (max - min) / (max + 1e-7f);
+    }
+
+    private static int toArgb(float[] rgba) {
+        return toByte(rgba[3]) << 24 | toByte(rgba[0]) << 16 | toByte(rgba[1]) << 8 | toByte(rgba[2]);
+    }
+
+    private static int toByte(float value) {
+        return (int) (clamp01(value) * 255 + 0.5f);
+    }
+
+    private static float mod(float x, float y) {
+        return x - y * (float) Math.floor(x / y);
+    }
+
+    private static float norm(float value, float start, float stop) {
+        return (value - start) / (stop - start);
+    }
+
+    private static float lerp(float start, float stop, float amt) {
+        return start + (stop - start) * amt;
+    }
+
+    private static float smoothstep(float x) {
+        float t = clamp01(x);
+        return t * t * (3 - 2 * t);
+    }
+
+    private static float length(float x, float y, float z) {
+        return (float) Math.sqrt(x * x + y * y + z * z);
+    }
+
+    private static float clamp01(float value) {
+        return Math.max(0, Math.min(1, value));
+    }
+}
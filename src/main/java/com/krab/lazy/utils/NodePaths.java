@@ -1,35 +1,169 @@
 package com.krab.lazy.utils;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
-@SuppressWarnings("RegExpRedundantEscape")
+/**
+ * Parses forward slash separated node paths where a slash escaped by a backslash like this: "\\/" does not separate folders.
+ * Everything is done in a single pass over the characters without regular expressions,
+ * because these methods run for every node constructor and for every lazily initialized folder path.
+ * An unescaped slash is any slash not directly preceded by a backslash.
+ */
 public class NodePaths {
 
-    static final String REGEX_UNESCAPED_SLASH_LOOKBEHIND = "(?<!\\\\)\\/";
-    static final String REGEX_UNESCAPED_SLASH_LOOKAROUND = "(?<!\\\\)(?=\\/)";
+    private static final int SPLIT_CACHE_CAPACITY = 1024;
+    private static final String[] EMPTY_SPLIT = new String[0];
+
+    /**
+     * Bounded least recently used cache of split paths, because the same folder paths get split over and over
+     * when lots of controls get created inside the same folders.
+     */
+    private static final Map<String, String[]> splitCache = new LinkedHashMap<String, String[]>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String[]> eldest) {
+            return size() > SPLIT_CACHE_CAPACITY;
+        }
+    };
 
     public static String getDisplayStringWithoutEscapes(String nameWithEscapes){
-        return nameWithEscapes.replaceAll("\\\\/", "/");
+        if (nameWithEscapes.indexOf('\\') == -1) {
+            return nameWithEscapes;
+        }
+        int length = nameWithEscapes.length();
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            char c = nameWithEscapes.charAt(i);
+            if (c == '\\' && i + 1 < length && nameWithEscapes.charAt(i + 1) == '/') {
+                sb.append('/');
+                i++;
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
     }
 
+    /**
+     * Splits the path at unescaped slashes, removing them.
+     * Behaves like String.split() so trailing empty segments are removed and a leading slash produces an empty first segment.
+     * The returned array is shared through a cache and must not be modified.
+     * @param source path to split
+     * @return path segments without the separating slashes
+     */
     public static String[] splitByUnescapedSlashes(String source){
-        return source.split(REGEX_UNESCAPED_SLASH_LOOKBEHIND);
+        synchronized (splitCache) {
+            String[] cached = splitCache.get(source);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        String[] split = splitByUnescapedSlashesUncached(source);
+        synchronized (splitCache) {
+            splitCache.put(source, split);
+        }
+        return split;
+    }
+
+    private static String[] splitByUnescapedSlashesUncached(String source) {
+        if (source.indexOf('/') == -1) {
+            return new String[]{source};
+        }
+        List<String> segments = new ArrayList<>();
+        int segmentStart = 0;
+        int length = source.length();
+        for (int i = 0; i < length; i++) {
+            if (isUnescapedSlashAt(source, i)) {
+                segments.add(source.substring(segmentStart, i));
+                segmentStart = i + 1;
+            }
+        }
+        if (segments.isEmpty()) {
+            return new String[]{source};
+        }
+        segments.add(source.substring(segmentStart));
+        int resultSize = segments.size();
+        while (resultSize > 0 && segments.get(resultSize - 1).isEmpty()) {
+            resultSize--;
+        }
+        if (resultSize == 0) {
+            return EMPTY_SPLIT;
+        }
+        return segments.subList(0, resultSize).toArray(new String[0]);
     }
 
+    /**
+     * Splits the path right before each unescaped slash, keeping the slashes at the start of each following segment.
+     * @param source path to split
+     * @return path segments with every segment except the first one starting with its slash
+     */
     public static String[] splitByUnescapesSlashesWithoutRemovingThem(String source){
-        return source.split(REGEX_UNESCAPED_SLASH_LOOKAROUND);
+        List<String> segments = new ArrayList<>();
+        int segmentStart = 0;
+        int length = source.length();
+        for (int i = 1; i < length; i++) {
+            if (isUnescapedSlashAt(source, i)) {
+                segments.add(source.substring(segmentStart, i));
+                segmentStart = i;
+            }
+        }
+        segments.add(source.substring(segmentStart));
+        return segments.toArray(new String[0]);
     }
 
     public static String getPathWithoutName(String pathWithName) {
-        String[] split = NodePaths.splitByUnescapesSlashesWithoutRemovingThem(pathWithName);
-        StringBuilder sum = new StringBuilder();
-        for (int i = 0; i < split.length - 1; i++) {
-            sum.append(split[i]);
+        int lastSlashIndex = lastIndexOfUnescapedSlash(pathWithName);
+        if (lastSlashIndex <= 0) {
+            return "";
         }
-        return sum.toString();
+        return pathWithName.substring(0, lastSlashIndex);
+    }
+
+    /**
+     * Gets the display name of the node at the path, which is its last segment with escaped slashes turned into plain slashes.
+     * @param path full path of the node
+     * @return name to display for the node
+     */
+    public static String getNameFromPath(String path) {
+        int lastSlashIndex = lastIndexOfUnescapedSlash(path);
+        String nameWithEscapes = lastSlashIndex == -1 ? path : path.substring(lastSlashIndex + 1);
+        return getDisplayStringWithoutEscapes(nameWithEscapes);
+    }
+
+    /**
+     * Tells whether the path is a single non-empty name with no slashes or escapes in it,
+     * meaning it can be looked up by name directly inside its parent folder.
+     * @param path path to check
+     * @return true if the path is a plain name of a single node
+     */
+    public static boolean isSingleUnescapedSegment(String path) {
+        return !path.isEmpty() && path.indexOf('/') == -1 && path.indexOf('\\') == -1;
     }
 
     public static String getNameWithoutPrefixSlash(String name) {
-        return name.replaceAll(REGEX_UNESCAPED_SLASH_LOOKBEHIND, "");
+        if (name.indexOf('/') == -1) {
+            return name;
+        }
+        int length = name.length();
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            if (!isUnescapedSlashAt(name, i)) {
+                sb.append(name.charAt(i));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static int lastIndexOfUnescapedSlash(String path) {
+        int i = path.lastIndexOf('/');
+        while (i != -1 && !isUnescapedSlashAt(path, i)) {
+            i = path.lastIndexOf('/', i - 1);
+        }
+        return i;
     }
-}
 
+    private static boolean isUnescapedSlashAt(String path, int index) {
+        return path.charAt(index) == '/' && (index == 0 || path.charAt(index - 1) != '\\');
+    }
+}
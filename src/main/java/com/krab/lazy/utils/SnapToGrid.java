@@ -5,11 +5,11 @@ import com.krab.lazy.stores.LayoutStore;
 import com.krab.lazy.stores.NormColorStore;
 import com.krab.lazy.PickerColor;
 import com.krab.lazy.stores.ShaderStore;
+import com.krab.lazy.stores.ShaderUniforms;
 import com.krab.lazy.windows.Window;
 import com.krab.lazy.windows.WindowManager;
 import processing.core.PGraphics;
 import processing.core.PVector;
-import processing.opengl.PShader;
 
 import java.util.List;
 
@@ -18,7 +18,7 @@ import static processing.core.PApplet.*;
 public class SnapToGrid {
     public static boolean snapToGridEnabled = true;
     static final List<String> availableVisibilityModes = new ListBuilder<String>().add("always", "on drag", "never").build();
-    private static PShader pointShader;
+    private static ShaderUniforms pointUniforms;
     private static final String pointShaderPath = "guideGridPoints.glsl";
     private static final int VISIBILITY_ALWAYS = 0;
     private static final int VISIBILITY_ON_DRAG = 1;
@@ -27,6 +27,7 @@ public class SnapToGrid {
     private static int selectedVisibilityModeIndex = defaultVisibilityModeIndex;
     private static float dragAlpha = 0;
     private static final float dragAlphaDelta = 0.05f;
+    private static final float negligibleAlphaDifference = 1 / 255f;
     private static PickerColor pointGridColor = new PickerColor(0xFF7F7F7F, 1,1,0.5f,1);
     private static float pointWeight = 3f;
     private static float sdfCropDistance = 100;
@@ -34,22 +35,63 @@ public class SnapToGrid {
     static float cellSizeLastFrame = -1;
     private static int pointColorPrev = -1;
     private static float pointColorRed, pointColorGreen, pointColorBlue;
+    // the last dragged window rectangle, kept for cropping the guide while it fades out after the drag ends
+    private static float cropWindowX, cropWindowY, cropWindowWidth, cropWindowHeight;
 
-    public static void displayGuideAndApplyFilter(PGraphics pg, Window draggedWindow){
-        if(pointShader == null){
-            pointShader = ShaderStore.getShader(pointShaderPath);
-        }
+    /**
+     * Fades the guide in or out depending on whether a window is being dragged, called every frame the gui is shown.
+     * @param draggedWindow window being dragged or null
+     */
+    public static void updateGuide(Window draggedWindow){
         if(selectedVisibilityModeIndex == VISIBILITY_ON_DRAG){
             updateAlpha(draggedWindow);
         }
-        if(selectedVisibilityModeIndex == VISIBILITY_NEVER){
+    }
+
+    /**
+     * Hash of everything that decides how the guide looks, which stays the same while the guide is invisible.
+     * @param draggedWindow window being dragged or null
+     * @return hash of the current look of the guide
+     */
+    public static int getDisplayHash(Window draggedWindow){
+        if(isGuideInvisible()){
+            return 0;
+        }
+        int hash = selectedVisibilityModeIndex;
+        hash = 31 * hash + Float.hashCode(dragAlpha);
+        hash = 31 * hash + pointGridColor.hex;
+        hash = 31 * hash + Float.hashCode(pointWeight);
+        hash = 31 * hash + Float.hashCode(sdfCropDistance);
+        hash = 31 * hash + Boolean.hashCode(shouldCenterPoints);
+        hash = 31 * hash + Float.hashCode(LayoutStore.cell);
+        if(draggedWindow != null){
+            hash = 31 * hash + Float.hashCode(draggedWindow.posX);
+            hash = 31 * hash + Float.hashCode(draggedWindow.posY);
+            hash = 31 * hash + Float.hashCode(draggedWindow.windowSizeX);
+            hash = 31 * hash + Float.hashCode(draggedWindow.windowSizeY);
+        }
+        return hash;
+    }
+
+    /**
+     * Draws the guide onto the freshly cleared gui canvas.
+     * Does nothing at all while the guide is invisible and only rasterizes the area around the dragged window
+     * when the guide is cropped to it, so the full screen pass only happens in the "always" mode.
+     * @param pg gui canvas
+     * @param draggedWindow window being dragged or null
+     */
+    public static void displayGuideAndApplyFilter(PGraphics pg, Window draggedWindow){
+        if(isGuideInvisible()){
             return;
         }
-        pointShader.set("alpha", selectedVisibilityModeIndex == VISIBILITY_ALWAYS ? pointGridColor.alpha : dragAlpha);
-        pointShader.set("sdfCropEnabled", selectedVisibilityModeIndex == VISIBILITY_ON_DRAG);
-        pointShader.set("shouldCenterPoints", shouldCenterPoints);
-        pointShader.set("sdfCropDistance", sdfCropDistance);
-        pointShader.set("gridCellSize", (float) floor(LayoutStore.cell));
+        if(pointUniforms == null){
+            pointUniforms = ShaderStore.getUniforms(pointShaderPath);
+        }
+        pointUniforms.set("alpha", selectedVisibilityModeIndex == VISIBILITY_ALWAYS ? pointGridColor.alpha : dragAlpha);
+        pointUniforms.set("sdfCropEnabled", selectedVisibilityModeIndex == VISIBILITY_ON_DRAG);
+        pointUniforms.set("shouldCenterPoints", shouldCenterPoints);
+        pointUniforms.set("sdfCropDistance", sdfCropDistance);
+        pointUniforms.set("gridCellSize", (float) floor(LayoutStore.cell));
         int pointColor = pointGridColor.hex;
         if(pointColorPrev == -1 || pointColor != pointColorPrev){
             pointColorPrev = pointColor;
@@ -57,22 +99,63 @@ public class SnapToGrid {
             pointColorGreen = NormColorStore.green(pointColor);
             pointColorBlue = NormColorStore.blue(pointColor);
         }
-        pointShader.set("pointColor", pointColorRed, pointColorGreen, pointColorBlue);
-        pointShader.set("pointWeight", pointWeight);
+        pointUniforms.set("pointColor", pointColorRed, pointColorGreen, pointColorBlue);
+        pointUniforms.set("pointWeight", pointWeight);
         if(draggedWindow != null){
-            pointShader.set("window", draggedWindow.posX, draggedWindow.posY, draggedWindow.windowSizeX, draggedWindow.windowSizeY);
+            cropWindowX = draggedWindow.posX;
+            cropWindowY = draggedWindow.posY;
+            cropWindowWidth = draggedWindow.windowSizeX;
+            cropWindowHeight = draggedWindow.windowSizeY;
         }
-        pg.filter(pointShader);
+        pointUniforms.set("window", cropWindowX, cropWindowY, cropWindowWidth, cropWindowHeight);
+        if(selectedVisibilityModeIndex == VISIBILITY_ON_DRAG){
+            drawGuideCroppedToWindow(pg);
+        }else{
+            pg.filter(pointUniforms.getShader());
+            pg.resetShader();
+            CanvasRegions.addFullCanvas();
+        }
+    }
+
+    /**
+     * Rasterizes the guide only in the rectangle where its distance based crop around the window can be visible.
+     * Uses the REPLACE blend mode to write the shader output the same way filter() does.
+     */
+    private static void drawGuideCroppedToWindow(PGraphics pg){
+        // the shader measures the window from the top of a square of the shorter canvas side, which shifts it on tall canvases
+        float shaderOffsetY = pg.height - min(pg.width, pg.height);
+        float x = floor(cropWindowX - sdfCropDistance);
+        float y = floor(cropWindowY + shaderOffsetY - sdfCropDistance);
+        float w = ceil(cropWindowWidth + sdfCropDistance * 2) + 1;
+        float h = ceil(cropWindowHeight + sdfCropDistance * 2) + 1;
+        pg.pushStyle();
+        pg.blendMode(REPLACE);
+        pg.rectMode(CORNER);
+        pg.noStroke();
+        pg.fill(0xFFFFFFFF);
+        pg.shader(pointUniforms.getShader());
+        pg.rect(x, y, w, h);
         pg.resetShader();
+        pg.popStyle();
+        CanvasRegions.addRect(x, y, w, h);
+    }
+
+    private static boolean isGuideInvisible(){
+        if(selectedVisibilityModeIndex == VISIBILITY_NEVER){
+            return true;
+        }
+        float alpha = selectedVisibilityModeIndex == VISIBILITY_ALWAYS ? pointGridColor.alpha : dragAlpha;
+        return alpha < negligibleAlphaDifference;
     }
 
     private static void updateAlpha(Window draggedWindow) {
         float dragAlphaMax = pointGridColor.alpha;
         dragAlphaMax = constrain(dragAlphaMax, 0, 1);
-        if(draggedWindow != null){
-            dragAlpha = lerp(dragAlpha, dragAlphaMax, dragAlphaDelta);
-        }else{
-            dragAlpha = lerp(dragAlpha, 0, dragAlphaDelta);
+        float targetAlpha = draggedWindow != null ? dragAlphaMax : 0;
+        dragAlpha = lerp(dragAlpha, targetAlpha, dragAlphaDelta);
+        // lerp never quite reaches its target, so snap to it once the difference can't be seen to let the gui go idle
+        if(abs(dragAlpha - targetAlpha) < negligibleAlphaDifference){
+            dragAlpha = targetAlpha;
         }
         dragAlpha = constrain(dragAlpha, 0, dragAlphaMax);
     }
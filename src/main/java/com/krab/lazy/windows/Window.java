@@ -6,7 +6,10 @@ import com.krab.lazy.nodes.FolderNode;
 import com.krab.lazy.stores.FontStore;
 import com.krab.lazy.stores.GlobalReferences;
 import com.krab.lazy.stores.LayoutStore;
+import com.krab.lazy.stores.InteractionStore;
 import com.krab.lazy.stores.NodeTree;
+import com.krab.lazy.stores.SurfaceStore;
+import com.krab.lazy.utils.CanvasRegions;
 import com.krab.lazy.utils.NodePaths;
 import com.krab.lazy.utils.SnapToGrid;
 import com.krab.lazy.input.LazyKeyEvent;
@@ -22,7 +25,6 @@ import processing.core.PGraphics;
 import processing.core.PVector;
 
 import java.util.Arrays;
-import java.util.List;
 
 import static processing.core.PApplet.*;
 import static com.krab.lazy.themes.ThemeColorType.*;
@@ -42,6 +44,10 @@ public class Window implements UserInputSubscriber {
     boolean isBeingResized;
     private boolean isTitleHighlighted;
     private boolean closeButtonPressInProgress;
+    private PGraphics windowImage;
+    private int windowImageDisplayHash;
+    private static final int WINDOW_IMAGE_MARGIN = 2;
+    private static final int WINDOW_IMAGE_SIZE_STEP = 64;
 
     public Window(FolderNode folder, float posX, float posY, Float nullableSizeX) {
         this.posX = posX;
@@ -60,28 +66,155 @@ public class Window implements UserInputSubscriber {
         }
     }
 
-    void drawWindow(PGraphics pg) {
-        pg.textFont(FontStore.getMainFont());
+    /**
+     * Updates the window and its visible nodes and redraws its cached image when anything it displays has changed,
+     * called every frame before the gui canvas starts drawing so that the window image is never drawn in the middle of it.
+     * @param pg gui canvas that the window image will be displayed on
+     * @param sharedStyleHash hash of the theme, font and layout settings shared by all windows
+     * @return hash of how this window looks on the gui canvas, zero when it is not shown
+     */
+    int updateWindow(PGraphics pg, int sharedStyleHash) {
         isTitleHighlighted = !closed && (isPointInsideTitleBar(GlobalReferences.app.mouseX, GlobalReferences.app.mouseY) && isBeingDraggedAround) || folder.isMouseOverNode;
         if (closed || !folder.isInlineNodeVisibleParentAware()) {
-            return;
+            return 0;
         }
         constrainPosition(pg);
+        updateInlineFolderChildren();
+        int displayHash = getDisplayHash(sharedStyleHash);
+        if (windowImage == null || displayHash != windowImageDisplayHash) {
+            redrawWindowImage();
+            windowImageDisplayHash = displayHash;
+        }
+        int hash = displayHash;
+        hash = 31 * hash + Float.hashCode(posX);
+        hash = 31 * hash + Float.hashCode(posY);
+        hash = 31 * hash + Boolean.hashCode(shouldDrawPathTooltip());
+        hash = 31 * hash + Boolean.hashCode(shouldDrawResizeIndicator());
+        hash = 31 * hash + Float.hashCode(LayoutStore.getResizeRectangleSize());
+        return hash;
+    }
+
+    void drawWindow(PGraphics pg) {
+        pg.textFont(FontStore.getMainFont());
+        if (closed || !folder.isInlineNodeVisibleParentAware() || windowImage == null) {
+            return;
+        }
+        pg.pushStyle();
+        pg.imageMode(CORNER);
+        pg.image(windowImage, getImageOriginX(), getImageOriginY());
+        pg.popStyle();
+        CanvasRegions.addRect(getImageOriginX(), getImageOriginY(), getWindowImageMinWidth(), getWindowImageMinHeight());
+        drawPathTooltipOnHighlight(pg);
+        drawResizeIndicator(pg);
+    }
+
+    private void redrawWindowImage() {
+        if (windowImage == null || !isWindowImageLargeEnough(windowImage.width, windowImage.height) ||
+                isWindowImageMuchTooLarge(windowImage.width, windowImage.height)) {
+            releaseWindowImage();
+            windowImage = SurfaceStore.obtain(
+                    roundUpToImageSizeStep(getWindowImageMinWidth()),
+                    roundUpToImageSizeStep(getWindowImageMinHeight()), P2D, 8);
+            windowImage.colorMode(HSB, 1, 1, 1, 1);
+        }
+        PGraphics pg = windowImage;
+        pg.beginDraw();
+        pg.clear();
+        pg.textFont(FontStore.getMainFont());
+        // the draw functions use absolute screen positions, so the image origin gets moved to the window corner instead
+        pg.translate(-getImageOriginX(), -getImageOriginY());
         pg.pushMatrix();
         drawBackgroundWithWindowBorder(pg, true);
-        drawPathTooltipOnHighlight(pg);
         drawContent(pg);
         drawBackgroundWithWindowBorder(pg, false);
         drawTitleBar(pg, isTitleHighlighted);
         if (!isRoot()) {
             drawCloseButton(pg);
         }
-        drawResizeIndicator(pg);
         pg.popMatrix();
+        pg.endDraw();
+    }
+
+    /**
+     * Frees the cached window image, which gets drawn again from scratch the next time the window is shown.
+     */
+    void releaseWindowImage() {
+        if (windowImage != null) {
+            SurfaceStore.release(windowImage);
+            windowImage = null;
+        }
+    }
+
+    private int getDisplayHash(int sharedStyleHash) {
+        int hash = sharedStyleHash;
+        hash = 31 * hash + Float.hashCode(windowSizeX);
+        hash = 31 * hash + Float.hashCode(windowSizeY);
+        // the fractional part of the position is drawn into the image
+        hash = 31 * hash + Float.hashCode(posX - floor(posX));
+        hash = 31 * hash + Float.hashCode(posY - floor(posY));
+        hash = 31 * hash + Boolean.hashCode(isTitleHighlighted);
+        hash = 31 * hash + Boolean.hashCode(isRoot() && GlobalReferences.app.focused);
+        hash = 31 * hash + Boolean.hashCode(isCloseButtonHighlighted());
+        for (int i = 0; i < folder.children.size(); i++) {
+            AbstractNode node = folder.children.get(i);
+            boolean isVisible = node.isInlineNodeVisible();
+            hash = 31 * hash + Boolean.hashCode(isVisible);
+            if (isVisible) {
+                hash = 31 * hash + node.getInlineDisplayHash();
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Gets the screen position of the top left corner of this window's cached image.
+     * It is snapped to whole pixels so the image gets displayed without any resampling that would blur it,
+     * while the fractional part of the window position stays in the translation used for drawing into the image.
+     * Shaders reading gl_FragCoord while drawing nodes of this window have their origin there.
+     * @return screen x of the image origin
+     */
+    public float getImageOriginX() {
+        return floor(posX) - WINDOW_IMAGE_MARGIN;
+    }
+
+    /**
+     * Gets the screen position of the top left corner of this window's cached image.
+     * @see Window#getImageOriginX()
+     * @return screen y of the image origin
+     */
+    public float getImageOriginY() {
+        return floor(posY) - WINDOW_IMAGE_MARGIN;
+    }
+
+    private int getWindowImageMinWidth() {
+        // one extra pixel for the fractional part of the position
+        return ceil(windowSizeX) + 1 + WINDOW_IMAGE_MARGIN * 2;
+    }
+
+    private int getWindowImageMinHeight() {
+        return ceil(windowSizeY) + 1 + WINDOW_IMAGE_MARGIN * 2;
+    }
+
+    private boolean isWindowImageLargeEnough(int width, int height) {
+        return width >= getWindowImageMinWidth() && height >= getWindowImageMinHeight();
+    }
+
+    private boolean isWindowImageMuchTooLarge(int width, int height) {
+        return width - getWindowImageMinWidth() > WINDOW_IMAGE_SIZE_STEP * 2 ||
+                height - getWindowImageMinHeight() > WINDOW_IMAGE_SIZE_STEP * 2;
+    }
+
+    // rounding up leaves some spare room, so resizing the window does not need a new image every frame
+    private static int roundUpToImageSizeStep(int size) {
+        return (size / WINDOW_IMAGE_SIZE_STEP + 1) * WINDOW_IMAGE_SIZE_STEP;
+    }
+
+    private boolean shouldDrawResizeIndicator() {
+        return isPointInsideResizeBorder(GlobalReferences.app.mouseX, GlobalReferences.app.mouseY) && LayoutStore.getShouldDrawResizeIndicator();
     }
 
     private void drawResizeIndicator(PGraphics pg) {
-        if (!isPointInsideResizeBorder(GlobalReferences.app.mouseX, GlobalReferences.app.mouseY) || !LayoutStore.getShouldDrawResizeIndicator()) {
+        if (!shouldDrawResizeIndicator()) {
             return;
         }
         float w = LayoutStore.getResizeRectangleSize();
@@ -91,10 +224,15 @@ public class Window implements UserInputSubscriber {
         pg.fill(ThemeStore.getColor(WINDOW_BORDER));
         pg.rect(windowSizeX - w / 2f, 0, w, windowSizeY);
         pg.popMatrix();
+        CanvasRegions.addRect(posX + windowSizeX - w / 2f, posY, w, windowSizeY);
+    }
+
+    private boolean shouldDrawPathTooltip() {
+        return isPointInsideTitleBar(GlobalReferences.app.mouseX, GlobalReferences.app.mouseY) && LayoutStore.getShowPathTooltips();
     }
 
     private void drawPathTooltipOnHighlight(PGraphics pg) {
-        if (!isPointInsideTitleBar(GlobalReferences.app.mouseX, GlobalReferences.app.mouseY) || !LayoutStore.getShowPathTooltips()) {
+        if (!shouldDrawPathTooltip()) {
             return;
         }
         pg.pushMatrix();
@@ -109,11 +247,12 @@ public class Window implements UserInputSubscriber {
         pg.textAlign(LEFT, CENTER);
         for (int i = 0; i < lineCount; i++) {
             String line = pathSplit[lineCount - 1 - i];
-            float tooltipWidth = max(tooltipWidthMinimum, pg.textWidth(line) + FontStore.textMarginX * 2);
+            float tooltipWidth = max(tooltipWidthMinimum, FontStore.getTextWidth(pg, line) + FontStore.textMarginX * 2);
             pg.fill(ThemeStore.getColor(NORMAL_BACKGROUND));
             pg.rect(tooltipXOffset, -i * LayoutStore.cell - LayoutStore.cell, tooltipWidth, LayoutStore.cell);
             pg.fill(ThemeStore.getColor(NORMAL_FOREGROUND));
             pg.text(line, FontStore.textMarginX + tooltipXOffset, -i * LayoutStore.cell - FontStore.textMarginY);
+            CanvasRegions.addRect(posX + tooltipXOffset, posY - i * LayoutStore.cell - LayoutStore.cell, tooltipWidth, LayoutStore.cell);
         }
         pg.popMatrix();
         pg.popStyle();
@@ -145,7 +284,7 @@ public class Window implements UserInputSubscriber {
         pg.stroke(ThemeStore.getColor(WINDOW_BORDER));
         pg.strokeWeight(1);
         pg.line(windowSizeX - LayoutStore.cell, 0, windowSizeX - LayoutStore.cell, LayoutStore.cell - 1);
-        if (isPointInsideCloseButton(GlobalReferences.app.mouseX, GlobalReferences.app.mouseY) || closeButtonPressInProgress) {
+        if (isCloseButtonHighlighted()) {
             pg.fill(ThemeStore.getColor(FOCUS_BACKGROUND));
             pg.noStroke();
             pg.rectMode(CORNER);
@@ -162,6 +301,10 @@ public class Window implements UserInputSubscriber {
         pg.popMatrix();
     }
 
+    private boolean isCloseButtonHighlighted() {
+        return isPointInsideCloseButton(GlobalReferences.app.mouseX, GlobalReferences.app.mouseY) || closeButtonPressInProgress;
+    }
+
     protected void drawContent(PGraphics pg) {
         drawInlineFolderChildren(pg);
     }
@@ -227,6 +370,9 @@ public class Window implements UserInputSubscriber {
         pg.rectMode(CENTER);
         pg.rect(x0, y0, endRectSize, endRectSize);
         pg.rect(x1, y1, endRectSize, endRectSize);
+        float regionMargin = endRectSize + pg.strokeWeight;
+        CanvasRegions.addRect(min(x0, x1) - regionMargin, min(y0, y1) - regionMargin,
+                abs(x1 - x0) + regionMargin * 2, abs(y1 - y0) + regionMargin * 2);
     }
 
     private void constrainPosition(PGraphics pg) {
@@ -250,11 +396,8 @@ public class Window implements UserInputSubscriber {
         }
     }
 
-    void drawInlineFolderChildren(PGraphics pg) {
+    private void updateInlineFolderChildren() {
         windowSizeY = LayoutStore.cell + heightSumOfChildNodes();
-        pg.pushMatrix();
-        pg.translate(posX, posY);
-        pg.translate(0, LayoutStore.cell);
         float y = LayoutStore.cell;
         for (int i = 0; i < folder.children.size(); i++) {
             AbstractNode node = folder.children.get(i);
@@ -263,6 +406,20 @@ public class Window implements UserInputSubscriber {
             }
             float nodeHeight = LayoutStore.cell * node.masterInlineNodeHeightInCells;
             node.updateInlineNodeCoordinates(posX, posY + y, windowSizeX, nodeHeight);
+            node.updateInlineNode();
+            y += nodeHeight;
+        }
+    }
+
+    void drawInlineFolderChildren(PGraphics pg) {
+        pg.pushMatrix();
+        pg.translate(posX, posY);
+        pg.translate(0, LayoutStore.cell);
+        for (int i = 0; i < folder.children.size(); i++) {
+            AbstractNode node = folder.children.get(i);
+            if (!node.isInlineNodeVisible()) {
+                continue;
+            }
             pg.pushMatrix();
             pg.pushStyle();
             node.updateDrawInlineNode(pg);
@@ -276,8 +433,7 @@ public class Window implements UserInputSubscriber {
                 pg.popStyle();
             }
 
-            y += nodeHeight;
-            pg.translate(0, nodeHeight);
+            pg.translate(0, node.size.y);
         }
         pg.popMatrix();
     }
@@ -309,13 +465,11 @@ public class Window implements UserInputSubscriber {
     public void mouseWheelMoved(LazyMouseEvent e) {
         // scrolling while dragging should scale the dragged inline node as opposed to whatever the cursor is hovering
         if (GlobalReferences.app.mousePressed) {
-            List<AbstractNode> allNodes = NodeTree.getAllNodesAsList();
-            for (AbstractNode node : allNodes) {
-                if (node.isInlineNodeDragged) {
-                    node.mouseWheelMovedOverNode(e.getX(), e.getY(), e.getRotation());
-                    e.setConsumed(true);
-                    return;
-                }
+            AbstractNode draggedNode = InteractionStore.getDraggedNode();
+            if (draggedNode != null && draggedNode.isInlineNodeDragged) {
+                draggedNode.mouseWheelMovedOverNode(e.getX(), e.getY(), e.getRotation());
+                e.setConsumed(true);
+                return;
             }
         }
         if (isPointInsideTitleBar(e.getX(), e.getY())) {
@@ -406,7 +560,7 @@ public class Window implements UserInputSubscriber {
                 e.setConsumed(true);
             }
         } else {
-            NodeTree.setAllNodesMouseOverToFalse();
+            InteractionStore.clearMouseOver();
         }
     }
 
@@ -482,6 +636,7 @@ public class Window implements UserInputSubscriber {
     void close() {
         closed = true;
         isBeingDraggedAround = false;
+        releaseWindowImage();
     }
 
     void open(boolean startDragging) {
@@ -1,19 +1,23 @@
 package com.krab.lazy.windows;
 
+import com.krab.lazy.input.UserInputPublisher;
 import com.krab.lazy.nodes.FolderNode;
+import com.krab.lazy.stores.FontStore;
 import com.krab.lazy.stores.LayoutStore;
 import com.krab.lazy.stores.NodeTree;
+import com.krab.lazy.themes.ThemeStore;
 import com.krab.lazy.utils.SnapToGrid;
 import processing.core.PGraphics;
 import processing.core.PVector;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 public class WindowManager {
     private static final List<Window> windows = new CopyOnWriteArrayList<>();
-    private static final List<Window> windowsToSetFocusOn = new ArrayList<>();
+    private static final Queue<Window> windowsToSetFocusOn = new ConcurrentLinkedQueue<>();
 
     public static void addRootWindow() {
         addWindow(new Window(NodeTree.getRoot(), LayoutStore.cell, LayoutStore.cell, LayoutStore.cell * LayoutStore.defaultWindowWidthInCells));
@@ -27,7 +31,18 @@ public class WindowManager {
         uncoverOrCreateWindow(folderNode, true, null, null, null);
     }
 
+    /**
+     * Opens the window of the folder at the requested position, creating the window if it does not exist yet.
+     * Can run on a sketch worker thread when it creates a folder that has an open window in the loaded save,
+     * so finding and creating the window is done while holding the NodeTree lock, which also guards the creation of the folder itself.
+     */
     public static void uncoverOrCreateWindow(FolderNode folderNode, boolean setFocus, Float nullablePosX, Float nullablePosY, Float nullableSizeX) {
+        synchronized (NodeTree.class) {
+            uncoverOrCreateWindowUnderLock(folderNode, setFocus, nullablePosX, nullablePosY, nullableSizeX);
+        }
+    }
+
+    private static void uncoverOrCreateWindowUnderLock(FolderNode folderNode, boolean setFocus, Float nullablePosX, Float nullablePosY, Float nullableSizeX) {
         PVector pos = new PVector(LayoutStore.cell, LayoutStore.cell);
         if(folderNode.parent != null){
             Window parentWindow = folderNode.parent.window;
@@ -71,19 +86,48 @@ public class WindowManager {
         }
     }
 
-    public static void updateAndDrawWindows(PGraphics pg) {
-        if(!windowsToSetFocusOn.isEmpty()){
-            for (Window w : windowsToSetFocusOn){
-                windows.remove(w);
-                windows.add(w);
-            }
-            windowsToSetFocusOn.clear();
+    /**
+     * Updates all windows and redraws the cached images of the ones whose contents changed since they were last drawn.
+     * Must be called before the gui canvas begins drawing.
+     * @param pg gui canvas that the windows will be displayed on
+     * @return hash of how all the windows look on the gui canvas, which only changes when the canvas needs to be drawn again
+     */
+    public static int updateWindows(PGraphics pg) {
+        Window windowToFocus;
+        while ((windowToFocus = windowsToSetFocusOn.poll()) != null) {
+            windows.remove(windowToFocus);
+            windows.add(windowToFocus);
         }
+        int sharedStyleHash = getSharedStyleHash();
+        int hash = 0;
+        for (Window win : windows) {
+            hash = 31 * hash + win.updateWindow(pg, sharedStyleHash);
+        }
+        return hash;
+    }
+
+    /**
+     * Displays the cached images of all open windows in focus order, which is all the window drawing done in a frame where nothing changed.
+     * @param pg gui canvas to draw on
+     */
+    public static void drawWindows(PGraphics pg) {
         for (Window win : windows) {
             win.drawWindow(pg);
         }
     }
 
+    private static int getSharedStyleHash() {
+        int hash = ThemeStore.getThemeVersion();
+        hash = 31 * hash + Float.hashCode(LayoutStore.cell);
+        hash = 31 * hash + Float.hashCode(FontStore.textMarginX);
+        hash = 31 * hash + Float.hashCode(FontStore.textMarginY);
+        hash = 31 * hash + System.identityHashCode(FontStore.getMainFont());
+        hash = 31 * hash + System.identityHashCode(FontStore.getSideFont());
+        hash = 31 * hash + Boolean.hashCode(LayoutStore.isShowHorizontalSeparators());
+        hash = 31 * hash + Float.hashCode(LayoutStore.getHorizontalSeparatorStrokeWeight());
+        return hash;
+    }
+
     static boolean isFocused(Window window) {
         return windows.get(windows.size()-1).equals(window);
     }
@@ -92,6 +136,24 @@ public class WindowManager {
         windowsToSetFocusOn.add(window);
     }
 
+    /**
+     * Removes the window of a folder that is no longer part of the node tree, so it no longer gets drawn or receives input.
+     * @param folderNode folder that was removed from the tree
+     */
+    public static void removeWindowOf(FolderNode folderNode) {
+        synchronized (NodeTree.class) {
+            Window window = folderNode.window;
+            if (window == null) {
+                return;
+            }
+            window.close();
+            windows.remove(window);
+            windowsToSetFocusOn.remove(window);
+            UserInputPublisher.unsubscribe(window);
+            folderNode.window = null;
+        }
+    }
+
     public static void closeAllWindows() {
         for(Window win : windows){
             if(!win.isRoot()){